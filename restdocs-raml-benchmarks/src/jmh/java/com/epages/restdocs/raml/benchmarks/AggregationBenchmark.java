@@ -0,0 +1,103 @@
+package com.epages.restdocs.raml.benchmarks;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.util.FileSystemUtils;
+
+import com.epages.restdocs.raml.JsonSchemaMerger;
+import com.epages.restdocs.raml.RamlApi;
+import com.epages.restdocs.raml.RamlFragment;
+import com.epages.restdocs.raml.RamlResource;
+import com.epages.restdocs.raml.RamlVersion;
+import com.epages.restdocs.raml.RamlWriter;
+import com.epages.restdocs.raml.ResourceGroup;
+
+/**
+ * The steps of the ramldoc task - parsing fragments, merging them into resources and writing the api files.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AggregationBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    private int operations;
+
+    private File workingDirectory;
+
+    private File outputDirectory;
+
+    private List<File> fragmentFiles;
+
+    private List<RamlFragment> fragments;
+
+    private RamlApi api;
+
+    @Setup
+    public void setUp() {
+        workingDirectory = createTempDirectory();
+        outputDirectory = new File(workingDirectory, "ramldoc");
+        fragmentFiles = new SyntheticSnippets(new File(workingDirectory, "generated-snippets"), outputDirectory).write(operations);
+        fragments = parseFragments();
+        api = new RamlApi("Benchmark API", "http://localhost:8080/", RamlVersion.V_1_0, mergeResources());
+    }
+
+    @TearDown
+    public void tearDown() {
+        FileSystemUtils.deleteRecursively(workingDirectory);
+    }
+
+    @Benchmark
+    public List<RamlFragment> parseFragments() {
+        return fragmentFiles.stream()
+                .map(RamlFragment.Companion::fromFile)
+                .collect(toList());
+    }
+
+    @Benchmark
+    public List<ResourceGroup> mergeResources() {
+        JsonSchemaMerger jsonSchemaMerger = new JsonSchemaMerger(outputDirectory);
+        return fragments.stream()
+                .collect(groupingBy(RamlFragment::getPath, TreeMap::new, toList()))
+                .values().stream()
+                .map(fragmentsWithSamePath -> RamlResource.Companion.fromFragments(fragmentsWithSamePath, jsonSchemaMerger))
+                .collect(groupingBy(RamlResource::getFirstPathPart, TreeMap::new, toList()))
+                .entrySet().stream()
+                .map(resources -> new ResourceGroup(resources.getKey(), resources.getValue()))
+                .collect(toList());
+    }
+
+    @Benchmark
+    public void writeApi() {
+        RamlWriter.INSTANCE.writeApi(
+                fileName -> new File(outputDirectory, fileName),
+                api,
+                "api.raml",
+                path -> path.substring(1) + ".raml");
+    }
+
+    private static File createTempDirectory() {
+        try {
+            return Files.createTempDirectory("aggregation-benchmark").toFile();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.epages.restdocs.raml.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.restdocs.payload.FieldDescriptor;
+
+import com.epages.restdocs.raml.benchmarks.SyntheticPayload.Shape;
+import com.epages.restdocs.raml.jsonschema.JsonSchemaFromFieldDescriptorsGenerator;
+import com.epages.restdocs.raml.jsonschema.SchemaRendering;
+
+/**
+ * Schema generation for small, deep and wide descriptor sets.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonSchemaGeneratorBenchmark {
+
+    @Param({"MIXED", "DEEP", "WIDE"})
+    private Shape shape;
+
+    @Param({"10", "100", "1000"})
+    private int fieldCount;
+
+    private List<FieldDescriptor> fieldDescriptors;
+
+    private JsonSchemaFromFieldDescriptorsGenerator generator;
+
+    @Setup
+    public void setUp() {
+        fieldDescriptors = new SyntheticPayload(shape, fieldCount).fieldDescriptors();
+        generator = new JsonSchemaFromFieldDescriptorsGenerator();
+    }
+
+    /**
+     * Generated schemas are cached by the fingerprint of the field descriptors - this renders the schema without the cache.
+     */
+    @Benchmark
+    public String generateSchema() {
+        return SchemaRendering.renderSchema(generator, fieldDescriptors);
+    }
+
+    @Benchmark
+    public String generateCachedSchema() {
+        return generator.generateSchema(fieldDescriptors);
+    }
+}
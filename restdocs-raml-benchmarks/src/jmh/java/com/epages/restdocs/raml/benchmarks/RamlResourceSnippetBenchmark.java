@@ -0,0 +1,112 @@
+package com.epages.restdocs.raml.benchmarks;
+
+import static com.epages.restdocs.raml.RamlResourceDocumentation.ramlResource;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.emptyList;
+import static org.springframework.restdocs.generate.RestDocumentationGenerator.ATTRIBUTE_NAME_URL_TEMPLATE;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.restdocs.ManualRestDocumentation;
+import org.springframework.restdocs.RestDocumentationContext;
+import org.springframework.restdocs.operation.Operation;
+import org.springframework.restdocs.operation.OperationRequest;
+import org.springframework.restdocs.operation.OperationRequestFactory;
+import org.springframework.restdocs.operation.OperationResponse;
+import org.springframework.restdocs.operation.OperationResponseFactory;
+import org.springframework.restdocs.operation.Parameters;
+import org.springframework.restdocs.operation.StandardOperation;
+import org.springframework.restdocs.payload.FieldDescriptor;
+import org.springframework.util.FileSystemUtils;
+
+import com.epages.restdocs.raml.RamlResourceSnippet;
+import com.epages.restdocs.raml.RamlResourceSnippetParameters;
+import com.epages.restdocs.raml.benchmarks.SyntheticPayload.Shape;
+
+/**
+ * Documenting a single operation with request and response fields - this covers validation, schema generation and writing all snippet files.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RamlResourceSnippetBenchmark {
+
+    @Param({"MIXED", "DEEP", "WIDE"})
+    private Shape shape;
+
+    @Param({"10", "100", "1000"})
+    private int fieldCount;
+
+    private File outputDirectory;
+
+    private RestDocumentationContext context;
+
+    private OperationRequest request;
+
+    private OperationResponse response;
+
+    private RamlResourceSnippet snippet;
+
+    @Setup
+    public void setUp() throws IOException {
+        outputDirectory = Files.createTempDirectory("raml-resource-snippet-benchmark").toFile();
+        ManualRestDocumentation restDocumentation = new ManualRestDocumentation(outputDirectory.getAbsolutePath());
+        restDocumentation.beforeTest(getClass(), "document");
+        context = restDocumentation.beforeOperation();
+
+        SyntheticPayload payload = new SyntheticPayload(shape, fieldCount);
+        byte[] content = payload.json().getBytes(UTF_8);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        request = new OperationRequestFactory().create(URI.create("http://localhost:8080/orders/1"), HttpMethod.PUT,
+                content, headers, new Parameters(), emptyList());
+        response = new OperationResponseFactory().create(HttpStatus.OK, headers, content);
+
+        List<FieldDescriptor> fieldDescriptors = payload.fieldDescriptors();
+        snippet = ramlResource(RamlResourceSnippetParameters.builder()
+                .description("Update an order")
+                .requestFields(fieldDescriptors.toArray(new FieldDescriptor[0]))
+                .responseFields(fieldDescriptors.toArray(new FieldDescriptor[0]))
+                .build());
+    }
+
+    @TearDown
+    public void tearDown() {
+        FileSystemUtils.deleteRecursively(outputDirectory);
+    }
+
+    @Benchmark
+    public void document() throws IOException {
+        snippet.document(operation());
+    }
+
+    /**
+     * Each documented operation is a new instance - just like in a test suite.
+     */
+    private Operation operation() {
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(RestDocumentationContext.class.getName(), context);
+        attributes.put(ATTRIBUTE_NAME_URL_TEMPLATE, "http://localhost:8080/orders/{id}");
+        return new StandardOperation("orders-update", request, response, attributes);
+    }
+}
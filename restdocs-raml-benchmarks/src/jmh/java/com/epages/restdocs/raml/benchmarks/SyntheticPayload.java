@@ -0,0 +1,106 @@
+package com.epages.restdocs.raml.benchmarks;
+
+import static java.util.stream.Collectors.toList;
+import static org.springframework.restdocs.payload.PayloadDocumentation.fieldWithPath;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.springframework.restdocs.payload.FieldDescriptor;
+import org.springframework.restdocs.payload.JsonFieldType;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * A generated JSON payload together with the field descriptors documenting it.
+ */
+public class SyntheticPayload {
+
+    /**
+     * The layout of the generated fields.
+     */
+    public enum Shape {
+        /**
+         * Top level fields, nested objects and arrays of objects - close to a typical resource.
+         */
+        MIXED {
+            @Override
+            String path(int field) {
+                switch (field % 3) {
+                    case 0: return "field" + field;
+                    case 1: return "nested" + (field % 5) + ".field" + field;
+                    default: return "items[].field" + field;
+                }
+            }
+        },
+        /**
+         * One chain of nested objects with 25 fields on each level - 1000 fields stay within the nesting limit of the json printer.
+         */
+        DEEP {
+            @Override
+            String path(int field) {
+                StringBuilder path = new StringBuilder();
+                for (int level = 0; level < field / 25; level++) {
+                    path.append("level").append(level).append('.');
+                }
+                return path.append("field").append(field).toString();
+            }
+        },
+        /**
+         * All fields are siblings in a single object.
+         */
+        WIDE {
+            @Override
+            String path(int field) {
+                return "wide.field" + field;
+            }
+        };
+
+        abstract String path(int field);
+    }
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final List<String> paths;
+
+    SyntheticPayload(Shape shape, int fieldCount) {
+        this.paths = IntStream.range(0, fieldCount).mapToObj(shape::path).collect(toList());
+    }
+
+    List<FieldDescriptor> fieldDescriptors() {
+        return paths.stream()
+                .map(path -> fieldWithPath(path).description("the " + path).type(JsonFieldType.STRING))
+                .collect(toList());
+    }
+
+    String json() {
+        Map<String, Object> root = new LinkedHashMap<>();
+        paths.forEach(path -> put(root, path.split("\\."), 0));
+        try {
+            return OBJECT_MAPPER.writeValueAsString(root);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void put(Map<String, Object> node, String[] segments, int index) {
+        String segment = segments[index];
+        if (index == segments.length - 1) {
+            node.put(segment, "value");
+        } else if (segment.endsWith("[]")) {
+            List<Object> array = (List<Object>) node.computeIfAbsent(segment.substring(0, segment.length() - 2), key -> {
+                List<Object> list = new ArrayList<>();
+                list.add(new LinkedHashMap<>());
+                return list;
+            });
+            put((Map<String, Object>) array.get(0), segments, index + 1);
+        } else {
+            put((Map<String, Object>) node.computeIfAbsent(segment, key -> new LinkedHashMap<>()), segments, index + 1);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.epages.restdocs.raml.benchmarks;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.epages.restdocs.raml.benchmarks.SyntheticPayload.Shape;
+import com.epages.restdocs.raml.jsonschema.JsonSchemaFromFieldDescriptorsGenerator;
+
+/**
+ * Writes the files that restdocs-raml would generate for a number of operations - a raml fragment per operation plus example and schema files.
+ *
+ * Two operations share each path and method, so that the aggregation has to merge their schemas.
+ */
+class SyntheticSnippets {
+
+    private static final String[] METHODS = {"get", "post", "put", "delete"};
+
+    private static final int PATHS_PER_GROUP = 10;
+
+    private final File snippetsDirectory;
+
+    private final File outputDirectory;
+
+    private final List<File> fragmentFiles = new ArrayList<>();
+
+    SyntheticSnippets(File snippetsDirectory, File outputDirectory) {
+        this.snippetsDirectory = snippetsDirectory;
+        this.outputDirectory = outputDirectory;
+    }
+
+    List<File> write(int operations) {
+        SyntheticPayload payload = new SyntheticPayload(Shape.MIXED, 10);
+        String example = payload.json();
+        String schema = new JsonSchemaFromFieldDescriptorsGenerator().generateSchema(payload.fieldDescriptors());
+
+        for (int operation = 0; operation < operations; operation++) {
+            String operationName = "operation-" + operation;
+            int pathIndex = operation / (2 * METHODS.length);
+            String method = METHODS[operation % METHODS.length];
+            boolean hasRequestBody = method.equals("post") || method.equals("put");
+
+            File operationDirectory = new File(snippetsDirectory, operationName);
+            File fragmentFile = new File(operationDirectory, "raml-resource.raml");
+            write(fragmentFile, fragment(operationName, pathIndex, method, hasRequestBody));
+            fragmentFiles.add(fragmentFile);
+
+            if (hasRequestBody) {
+                write(new File(outputDirectory, operationName + "-request.json"), example);
+                write(new File(outputDirectory, operationName + "-schema-request.json"), schema);
+            }
+            write(new File(outputDirectory, operationName + "-response.json"), example);
+            write(new File(outputDirectory, operationName + "-schema-response.json"), schema);
+        }
+        return fragmentFiles;
+    }
+
+    private String fragment(String operationName, int pathIndex, String method, boolean hasRequestBody) {
+        StringBuilder fragment = new StringBuilder()
+                .append("/group").append(pathIndex / PATHS_PER_GROUP).append("/items").append(pathIndex).append("/{id}:\n")
+                .append("  uriParameters:\n")
+                .append("    id:\n")
+                .append("      description: the id\n")
+                .append("      type: string\n")
+                .append("  ").append(method).append(":\n")
+                .append("    description: ").append(operationName).append('\n')
+                .append("    securedBy: [\"scope:read\", \"scope:write\"]\n");
+        if (hasRequestBody) {
+            fragment.append("    body:\n")
+                    .append("      application/json:\n")
+                    .append("        schema: !include ").append(operationName).append("-schema-request.json\n")
+                    .append("        example: !include ").append(operationName).append("-request.json\n");
+        }
+        return fragment
+                .append("    responses:\n")
+                .append("      200:\n")
+                .append("        body:\n")
+                .append("          application/json:\n")
+                .append("            schema: !include ").append(operationName).append("-schema-response.json\n")
+                .append("            example: !include ").append(operationName).append("-response.json\n")
+                .toString();
+    }
+
+    private static void write(File file, String content) {
+        try {
+            Files.createDirectories(file.getParentFile().toPath());
+            Files.write(file.toPath(), content.getBytes(UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.epages.restdocs.raml.jsonschema;
+
+import java.util.List;
+
+import org.springframework.restdocs.payload.FieldDescriptor;
+
+/**
+ * Gives the benchmarks access to the package private rendering of {@link JsonSchemaFromFieldDescriptorsGenerator} - bypassing the schema cache.
+ */
+public final class SchemaRendering {
+
+    private SchemaRendering() {
+    }
+
+    public static String renderSchema(JsonSchemaFromFieldDescriptorsGenerator generator, List<FieldDescriptor> fieldDescriptors) {
+        return generator.renderSchema(fieldDescriptors, null);
+    }
+}
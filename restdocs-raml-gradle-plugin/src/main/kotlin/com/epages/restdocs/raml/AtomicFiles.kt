@@ -0,0 +1,31 @@
+package com.epages.restdocs.raml
+
+import java.io.File
+import java.io.OutputStream
+import java.nio.file.AtomicMoveNotSupportedException
+import java.nio.file.Files
+import java.nio.file.StandardCopyOption.ATOMIC_MOVE
+import java.nio.file.StandardCopyOption.REPLACE_EXISTING
+import java.nio.file.StandardOpenOption.CREATE_NEW
+import java.nio.file.StandardOpenOption.WRITE
+import java.util.UUID
+
+/**
+ * Writes the content to a temporary file next to the target and moves it into place - readers never see a half written file.
+ *
+ * The temporary file is created like any other file - [Files.createTempFile] would make it readable by the owner only.
+ * Falls back to a plain move if the file system cannot move atomically.
+ */
+internal fun File.writeAtomically(write: (OutputStream) -> Unit) {
+    val temporaryFile = absoluteFile.parentFile.toPath().resolve(".$name.${UUID.randomUUID()}.tmp")
+    try {
+        Files.newOutputStream(temporaryFile, CREATE_NEW, WRITE).use(write)
+        try {
+            Files.move(temporaryFile, toPath(), ATOMIC_MOVE, REPLACE_EXISTING)
+        } catch (e: AtomicMoveNotSupportedException) {
+            Files.move(temporaryFile, toPath(), REPLACE_EXISTING)
+        }
+    } finally {
+        Files.deleteIfExists(temporaryFile)
+    }
+}
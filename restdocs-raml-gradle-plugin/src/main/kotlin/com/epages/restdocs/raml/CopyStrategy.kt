@@ -0,0 +1,72 @@
+package com.epages.restdocs.raml
+
+import com.epages.restdocs.raml.SnippetManifest.SnippetFile
+import java.io.IOException
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.StandardCopyOption.COPY_ATTRIBUTES
+import java.nio.file.StandardCopyOption.REPLACE_EXISTING
+import java.nio.file.attribute.BasicFileAttributes
+
+/**
+ * How the ramldoc task transfers examples and schemas from the snippets directory to the output directory.
+ */
+enum class CopyStrategy(val id: String) {
+
+    /**
+     * Copies a file unless the target already has the same size and modification time or the same content.
+     */
+    COPY("copy") {
+        override fun transfer(source: SnippetFile, target: Path): Boolean {
+            if (hasSameContent(source, target)) return false
+            Files.copy(source.path, target, REPLACE_EXISTING, COPY_ATTRIBUTES)
+            return true
+        }
+    },
+
+    /**
+     * Links the target to the source - falls back to copying if the file system does not support hard links
+     * or the directories are on different file systems.
+     */
+    HARD_LINK("hardLink") {
+        override fun transfer(source: SnippetFile, target: Path): Boolean {
+            if (Files.exists(target) && Files.isSameFile(source.path, target)) return false
+            return try {
+                Files.deleteIfExists(target)
+                Files.createLink(target, source.path)
+                true
+            } catch (e: UnsupportedOperationException) {
+                COPY.transfer(source, target)
+            } catch (e: IOException) {
+                COPY.transfer(source, target)
+            }
+        }
+    };
+
+    /**
+     * @return false if the target was up to date
+     */
+    abstract fun transfer(source: SnippetFile, target: Path): Boolean
+
+    companion object {
+
+        fun of(id: String): CopyStrategy = values().find { it.id == id }
+                ?: throw IllegalArgumentException("Unknown copy strategy '$id' - use one of ${values().map { it.id }}")
+
+        private fun hasSameContent(source: SnippetFile, target: Path): Boolean {
+            if (!Files.isRegularFile(target)) return false
+            val targetAttributes = Files.readAttributes(target, BasicFileAttributes::class.java)
+            return when {
+                targetAttributes.size() != source.size -> false
+                targetAttributes.lastModifiedTime().toMillis() == source.lastModified -> true
+                else -> Files.newInputStream(source.path).buffered().use { sourceStream ->
+                    Files.newInputStream(target).buffered().use { targetStream ->
+                        generateSequence { sourceStream.read() }
+                                .takeWhile { it != -1 }
+                                .all { it == targetStream.read() }
+                    }
+                }
+            }
+        }
+    }
+}
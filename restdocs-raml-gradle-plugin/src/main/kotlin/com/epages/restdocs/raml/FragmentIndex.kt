@@ -0,0 +1,99 @@
+package com.epages.restdocs.raml
+
+import java.io.File
+import java.io.IOException
+import java.io.ObjectInputStream
+import java.io.ObjectOutputStream
+import java.io.Serializable
+import java.security.MessageDigest
+
+/**
+ * The fragments parsed by the last run of the ramldoc task - keyed by the path of the fragment file relative to the snippets directory.
+ *
+ * A fragment is only parsed again if the hash of its content changed.
+ * Updates report the resource groups they affect, so only the files of these groups need to be written again.
+ */
+class FragmentIndex(private val entries: MutableMap<String, Entry> = HashMap()) {
+
+    data class Entry(val hash: String, val fragment: RamlFragment): Serializable
+
+    val keys: Set<String>
+        get() = entries.keys
+
+    val fragments: List<RamlFragment>
+        get() = entries.toSortedMap().values.map { it.fragment }
+
+    /**
+     * @return the first path parts of the groups the fragment belonged to before and after the update
+     */
+    fun update(key: String, fragmentFile: File): Set<String> =
+            updateAll(mapOf(key to fragmentFile), ParallelMapper(1))
+
+    /**
+     * The fragment files are read and parsed by the given mapper - the index is only changed afterwards.
+     *
+     * @return the first path parts of the groups the fragments belonged to before and after the update
+     */
+    fun updateAll(fragmentFiles: Map<String, File>, mapper: ParallelMapper): Set<String> =
+            mapper.map(fragmentFiles.toList()) { (key, file) -> key to readChangedEntry(key, file) }
+                    .flatMap { (key, entry) -> if (entry == null) emptySet() else put(key, entry) }
+                    .toSet()
+
+    /**
+     * @return null if the content of the fragment did not change
+     */
+    private fun readChangedEntry(key: String, fragmentFile: File): Entry? {
+        val content = fragmentFile.readBytes()
+        val hash = sha256(content)
+        return if (entries[key]?.hash == hash) null
+        else Entry(hash, RamlFragment.fromFile(fragmentFile, content))
+    }
+
+    private fun put(key: String, entry: Entry): Set<String> =
+            setOfNotNull(entries.put(key, entry)?.fragment?.firstPathPart, entry.fragment.firstPathPart)
+
+    fun remove(key: String): Set<String> =
+            setOfNotNull(entries.remove(key)?.fragment?.firstPathPart)
+
+    fun retainAll(keys: Set<String>): Set<String> =
+            (entries.keys - keys).flatMap { remove(it) }.toSet()
+
+    /**
+     * Bodies and schemas are stored next to their fragment - a changed schema affects the groups of the fragments in its directory.
+     */
+    fun groupsInDirectory(directory: String): Set<String> =
+            entries.filterKeys { it.substringBeforeLast('/', "") == directory }
+                    .values
+                    .map { it.fragment.firstPathPart }
+                    .toSet()
+
+    fun write(indexFile: File) {
+        indexFile.parentFile.mkdirs()
+        ObjectOutputStream(indexFile.outputStream().buffered()).use { it.writeObject(HashMap(entries)) }
+    }
+
+    companion object {
+
+        /**
+         * @return null if there is no index or it was written by an incompatible version of the plugin
+         */
+        @Suppress("UNCHECKED_CAST")
+        fun read(indexFile: File): FragmentIndex? {
+            if (!indexFile.isFile) return null
+            return try {
+                ObjectInputStream(indexFile.inputStream().buffered())
+                        .use { it.readObject() as MutableMap<String, Entry> }
+                        .let { FragmentIndex(it) }
+            } catch (e: IOException) {
+                null
+            } catch (e: ClassNotFoundException) {
+                null
+            } catch (e: ClassCastException) {
+                null
+            }
+        }
+
+        private fun sha256(content: ByteArray) =
+                MessageDigest.getInstance("SHA-256").digest(content).joinToString("") { "%02x".format(it) }
+    }
+}
@@ -0,0 +1,213 @@
+package com.epages.restdocs.raml
+
+import com.epages.restdocs.raml.RamlParser.includeTag
+import org.yaml.snakeyaml.events.Event
+import org.yaml.snakeyaml.events.MappingEndEvent
+import org.yaml.snakeyaml.events.MappingStartEvent
+import org.yaml.snakeyaml.events.ScalarEvent
+import org.yaml.snakeyaml.events.SequenceEndEvent
+import org.yaml.snakeyaml.events.SequenceStartEvent
+
+/**
+ * Reads a [RamlFragment] straight from the events of the YAML parser - without constructing the generic map [RamlFragment.fromYamlMap] works on.
+ *
+ * Like [RamlFragment.fromYamlMap] only the first method of a fragment and the first response and body of a method are read.
+ */
+internal class FragmentReader(events: Iterable<Event>) {
+
+    private val events = events.iterator()
+
+    private var current: Event? = null
+
+    fun readFragment(id: String): RamlFragment {
+        var fragment: RamlFragment? = null
+        while (fragment == null && events.hasNext()) {
+            if (next() is MappingStartEvent) {
+                val path = readKey() ?: throw IllegalArgumentException("Fragment $id does not contain a resource")
+                fragment = readResource(id, path)
+            }
+        }
+        return fragment ?: throw IllegalArgumentException("Fragment $id does not contain a resource")
+    }
+
+    private fun readResource(id: String, path: String): RamlFragment {
+        var uriParameters = emptyList<Parameter>()
+        var method: Method? = null
+        readMapping { key ->
+            when {
+                key == "uriParameters" -> uriParameters = readParameters()
+                method == null -> method = readMethod(key)
+                else -> skipValue()
+            }
+        }
+        return RamlFragment(id = id, path = path, method = method ?: Method(""), uriParameters = uriParameters)
+    }
+
+    private fun readMethod(method: String): Method {
+        var result = Method(method)
+        readMapping { key ->
+            result = when (key) {
+                "description" -> result.copy(description = readScalar())
+                "queryParameters" -> result.copy(queryParameters = readParameters())
+                "is" -> result.copy(traits = readStrings())
+                "securedBy" -> result.copy(securedBy = readStrings())
+                "headers" -> result.copy(headers = readHeaders())
+                "body" -> result.copy(requestBodies = listOfNotNull(readBody()))
+                "responses" -> result.copy(responses = listOfNotNull(readResponse()))
+                else -> result.also { skipValue() }
+            }
+        }
+        return result
+    }
+
+    private fun readResponse(): Response? {
+        var response: Response? = null
+        readMapping { status ->
+            if (response != null) {
+                skipValue()
+                return@readMapping
+            }
+            var headers = emptyList<Header>()
+            var bodies = emptyList<Body>()
+            readMapping { key ->
+                when (key) {
+                    "headers" -> headers = readHeaders()
+                    "body" -> bodies = listOfNotNull(readBody())
+                    else -> skipValue()
+                }
+            }
+            response = Response(status = status.toInt(), bodies = bodies, headers = headers)
+        }
+        return response
+    }
+
+    private fun readBody(): Body? {
+        var body: Body? = null
+        readMapping { contentType ->
+            if (body != null) {
+                skipValue()
+                return@readMapping
+            }
+            var example: Include? = null
+            var schema: Include? = null
+            readMapping { key ->
+                when (key) {
+                    "example" -> example = readInclude()
+                    "schema" -> schema = readInclude()
+                    else -> skipValue()
+                }
+            }
+            body = Body(contentType = contentType, example = example, schema = schema)
+        }
+        return body
+    }
+
+    private fun readParameters(): List<Parameter> {
+        val parameters = mutableListOf<Parameter>()
+        readMapping { name ->
+            val values = readScalars()
+            parameters += Parameter(name, values["description"].orEmpty(), values["type"].orEmpty())
+        }
+        return parameters
+    }
+
+    private fun readHeaders(): List<Header> {
+        val headers = mutableListOf<Header>()
+        readMapping { name ->
+            val values = readScalars()
+            headers += Header(name, values["description"].orEmpty(), values["example"].orEmpty())
+        }
+        return headers
+    }
+
+    private fun readScalars(): Map<String, String?> {
+        val values = mutableMapOf<String, String?>()
+        readMapping { key -> values[key] = readScalar() }
+        return values
+    }
+
+    /**
+     * Reads the entries of a mapping - the callback has to consume the value of each key. A null value is read as an empty mapping.
+     */
+    private fun readMapping(readEntry: (String) -> Unit) {
+        val start = next()
+        if (start !is MappingStartEvent) {
+            skipRemainder(start)
+            return
+        }
+        while (true) {
+            val key = readKey() ?: return
+            readEntry(key)
+        }
+    }
+
+    /**
+     * @return null at the end of the mapping
+     */
+    private fun readKey(): String? {
+        val event = next()
+        return when (event) {
+            is MappingEndEvent -> null
+            is ScalarEvent -> event.value
+            else -> throw IllegalArgumentException("Unsupported key at ${event.startMark}")
+        }
+    }
+
+    private fun readScalar(): String? {
+        val event = next()
+        if (event is ScalarEvent && !isNull(event)) return event.value
+        skipRemainder(event)
+        return null
+    }
+
+    private fun readInclude(): Include? {
+        val event = next()
+        if (event is ScalarEvent && event.tag == includeTag.value) return Include(event.value)
+        skipRemainder(event)
+        return null
+    }
+
+    private fun readStrings(): List<String> {
+        val start = next()
+        if (start !is SequenceStartEvent) {
+            skipRemainder(start)
+            return emptyList()
+        }
+        val values = mutableListOf<String>()
+        while (true) {
+            val event = next()
+            when (event) {
+                is SequenceEndEvent -> return values
+                is ScalarEvent -> if (!isNull(event)) values += event.value
+                else -> skipRemainder(event)
+            }
+        }
+    }
+
+    private fun skipValue() = skipRemainder(next())
+
+    /**
+     * Skips the nested events if the given event starts a mapping or sequence.
+     */
+    private fun skipRemainder(event: Event) {
+        if (event !is MappingStartEvent && event !is SequenceStartEvent) return
+        var depth = 1
+        while (depth > 0) {
+            val nested = next()
+            if (nested is MappingStartEvent || nested is SequenceStartEvent) depth++
+            else if (nested is MappingEndEvent || nested is SequenceEndEvent) depth--
+        }
+    }
+
+    private fun isNull(event: ScalarEvent) =
+            event.tag == null && event.implicit.canOmitTagInPlainScalar() && event.value in NULL_VALUES
+
+    private fun next(): Event {
+        if (!events.hasNext()) throw IllegalArgumentException("Unexpected end of fragment after ${current?.endMark}")
+        return events.next().also { current = it }
+    }
+
+    companion object {
+        private val NULL_VALUES = setOf("", "~", "null", "Null", "NULL")
+    }
+}
@@ -3,25 +3,73 @@ package com.epages.restdocs.raml
 import com.fasterxml.jackson.databind.ObjectMapper
 import com.fasterxml.jackson.databind.SerializationFeature
 import java.io.File
+import java.security.MessageDigest
+import java.util.concurrent.ConcurrentHashMap
 
-
+/**
+ * Merges the schemas of bodies with the same content type into a single schema.
+ *
+ * The schemas are merged in memory - objects are merged recursively and arrays are united.
+ * Only `required` is intersected - a property is only required if every schema requires it.
+ * Each schema is only parsed once per merger, even if it is used by several methods.
+ */
 open class JsonSchemaMerger(private val directory: File) {
     private val objectMapper = ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
 
+    private val schemasByLocation = ConcurrentHashMap<String, Map<*, *>>()
+
     open fun mergeSchemas(schemas: List<Include>): Include {
-        val targetInclude = schemas
-                .sortedBy { it.location }
-                .first()
-                .let { Include(it.location.replace(".json", "-merged.json")) }
-
-        return schemas.reduce { i1, i2 ->
-            objectMapper.readValue(fileFromInclude(i1), Map::class.java)
-                    .let { objectMapper.readerForUpdating(it) }
-                    .let { it.readValue<Map<*,*>>(fileFromInclude(i2)) }
-                    .let { objectMapper.writeValue(fileFromInclude(targetInclude), it) }
-                    .let { targetInclude }
+        if (schemas.size == 1) return schemas.first()
+
+        val targetInclude = mergedInclude(schemas)
+
+        schemas.map { parsedSchema(it) }
+                .reduce { merged, schema -> merge(merged, schema) as Map<*, *> }
+                .let { write(it, fileFromInclude(targetInclude)) }
+        return targetInclude
+    }
+
+    /**
+     * Content addressed schemas are shared by several methods - so the name of the merged schema contains a hash of all its inputs.
+     * Otherwise merges of different schemas that share the first input would write the same file.
+     */
+    private fun mergedInclude(schemas: List<Include>): Include {
+        val locations = schemas.map { it.location }.sorted()
+        val hash = MessageDigest.getInstance("SHA-256")
+                .digest(locations.joinToString("\n").toByteArray(Charsets.UTF_8))
+                .take(8)
+                .joinToString("") { "%02x".format(it) }
+        return Include(locations.first().replace(".json", "-$hash-merged.json"))
+    }
+
+    private fun parsedSchema(include: Include): Map<*, *> =
+            schemasByLocation.computeIfAbsent(include.location) { objectMapper.readValue(fileFromInclude(include), Map::class.java) }
+
+    /**
+     * Never changes its arguments - they are shared by all merges the parsed schema takes part in.
+     */
+    private fun merge(merged: Any?, schema: Any?): Any? = when {
+        merged is Map<*, *> && schema is Map<*, *> -> LinkedHashMap<Any?, Any?>(merged).apply {
+            schema.forEach { (key, value) -> put(key, if (containsKey(key)) merge(get(key), value) else value) }
+            // a schema without required properties requires none - a map is a property named required
+            if (merged[REQUIRED] is List<*> || schema[REQUIRED] is List<*>) {
+                val required = (merged[REQUIRED] as? List<*>).orEmpty().filter { (schema[REQUIRED] as? List<*>).orEmpty().contains(it) }
+                if (required.isEmpty()) remove(REQUIRED) else put(REQUIRED, required)
+            }
         }
+        merged is List<*> && schema is List<*> -> (merged + schema).distinct()
+        else -> schema
     }
 
+    /**
+     * Resources are merged in parallel - the merged schema is moved into place so it is never read half written.
+     */
+    private fun write(schema: Map<*, *>, target: File) =
+            target.writeAtomically { objectMapper.writeValue(it, schema) }
+
     private fun fileFromInclude(include: Include) = File(directory, include.location)
+
+    companion object {
+        private const val REQUIRED = "required"
+    }
 }
@@ -0,0 +1,28 @@
+package com.epages.restdocs.raml
+
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.ForkJoinPool
+import java.util.stream.Collectors.toList
+
+/**
+ * Maps the items of a list in parallel on a pool bounded to the given parallelism.
+ *
+ * The result keeps the order of the items - so the aggregated files do not depend on the order the items were processed in.
+ */
+class ParallelMapper(private val parallelism: Int) {
+
+    fun <T, R> map(items: List<T>, transform: (T) -> R): List<R> {
+        if (parallelism <= 1 || items.size <= 1) return items.map(transform)
+
+        val pool = ForkJoinPool(parallelism)
+        try {
+            // a parallel stream runs in the pool it is started from
+            return pool.submit(Callable<List<R>> { items.parallelStream().map { transform(it) }.collect(toList()) }).get()
+        } catch (e: ExecutionException) {
+            throw e.cause ?: e
+        } finally {
+            pool.shutdown()
+        }
+    }
+}
@@ -9,53 +9,94 @@ import org.yaml.snakeyaml.constructor.SafeConstructor
 import org.yaml.snakeyaml.nodes.Node
 import org.yaml.snakeyaml.nodes.ScalarNode
 import org.yaml.snakeyaml.nodes.Tag
+import org.yaml.snakeyaml.reader.UnicodeReader
 import org.yaml.snakeyaml.representer.Represent
 import org.yaml.snakeyaml.representer.Representer
 import java.io.File
 import java.io.InputStream
+import java.io.Serializable
+import java.nio.file.Files
+import java.util.IdentityHashMap
 
 
 object RamlParser {
 
     val includeTag = Tag("!include")
 
-    fun parseFragment(fragmentFile: File): Map<*, *> = parseFragment(fragmentFile.inputStream())
+    fun parseFragment(fragmentFile: File): Map<*, *> = fragmentFile.inputStream().use { parseFragment(it) }
 
     fun parseFragment(fragmentStream: InputStream): Map<*, *> = yaml()
             .load<Map<Any, Any>>(fragmentStream)
 
     fun parseFragment(s: String): Map<*, *> = yaml()
             .load<Map<Any, Any>>(s)
+
+    /**
+     * Reads the fragment from the events of the YAML parser - faster than [RamlFragment.fromYamlMap] on the result of [parseFragment].
+     */
+    fun readFragment(id: String, fragmentStream: InputStream): RamlFragment =
+            FragmentReader(yaml().parse(UnicodeReader(fragmentStream))).readFragment(id)
 }
 
 object RamlWriter {
 
-    fun writeApi(fileFactory: (String) -> File, api: RamlApi, apiFileName: String, groupFileNameProvider: (String) -> String) {
+    /**
+     * The group files are written in parallel by the given mapper - the api file including them is written last.
+     *
+     * @param writtenGroups groups written for another api - a group that is part of several apis is only rendered once and copied
+     */
+    @JvmOverloads
+    fun writeApi(fileFactory: (String) -> File,
+                 api: RamlApi,
+                 apiFileName: String,
+                 groupFileNameProvider: (String) -> String,
+                 writtenGroups: MutableMap<ResourceGroup, File> = IdentityHashMap(),
+                 mapper: ParallelMapper = ParallelMapper(1)) {
+        mapper.map(api.resourceGroups) { group ->
+            val targetFile = fileFactory(groupFileNameProvider(group.firstPathPart))
+            val writtenFile = writtenGroups[group]
+            if (writtenFile != null) {
+                targetFile.writeAtomically { Files.copy(writtenFile.toPath(), it) }
+            } else {
+                writeFile(targetFile) { mapping { group.emitRaml(this, api.ramlVersion) } }
+            }
+            group to targetFile
+        }.forEach { (group, targetFile) -> writtenGroups.getOrPut(group) { targetFile } }
+
         writeFile(targetFile = fileFactory(apiFileName),
                 contentMap = api.toMainFileMap(groupFileNameProvider),
                 headerLine = api.ramlVersion.versionString)
-
-        api.resourceGroups.map { writeFile(
-                targetFile = fileFactory(groupFileNameProvider(it.firstPathPart)),
-                contentMap = it.toRamlMap(api.ramlVersion)) }
     }
 
     fun writeFile(targetFile: File, contentMap: Map<*, *>, headerLine: String? = null) {
-        targetFile.writer().let { writer ->
-            headerLine?.let { writer.write("$it\n" ) }
-            yaml().dump(contentMap, writer)
+        writeFile(targetFile, headerLine) { value(contentMap) }
+    }
+
+    private fun writeFile(targetFile: File, headerLine: String? = null, content: RamlEmitter.() -> Unit) {
+        targetFile.writeAtomically { outputStream ->
+            outputStream.bufferedWriter(Charsets.UTF_8).use { writer ->
+                headerLine?.let { writer.write("$it\n" ) }
+                RamlEmitter(writer, dumperOptions()).document(content)
+            }
         }
     }
 }
 
-private fun yaml() = Yaml(IncludeConstructor(), IncludeRepresenter(),
-        DumperOptions().apply {
-            defaultFlowStyle = DumperOptions.FlowStyle.BLOCK
-            defaultScalarStyle = PLAIN
-            isAllowReadOnlyProperties = true
-        })
+/**
+ * Building a [Yaml] with its constructor and representer is expensive - but it must not be shared between threads.
+ * So every thread parsing or writing files gets its own.
+ */
+private val yamlPerThread = ThreadLocal.withInitial { Yaml(IncludeConstructor(), IncludeRepresenter(), dumperOptions()) }
+
+private fun dumperOptions() = DumperOptions().apply {
+    defaultFlowStyle = DumperOptions.FlowStyle.BLOCK
+    defaultScalarStyle = PLAIN
+    isAllowReadOnlyProperties = true
+}
+
+private fun yaml() = yamlPerThread.get()
 
-data class Include(val location: String)
+data class Include(val location: String): Serializable
 
 internal class IncludeRepresenter : Representer() {
     init {
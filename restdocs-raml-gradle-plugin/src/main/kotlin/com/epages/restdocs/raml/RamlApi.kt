@@ -2,16 +2,28 @@ package com.epages.restdocs.raml
 
 import com.epages.restdocs.raml.RamlVersion.V_1_0
 import java.io.File
-
-data class RamlApi(val title: String, val baseUri: String?, val ramlVersion: RamlVersion, private val _resourceGroups: List<ResourceGroup> ) {
+import java.io.Serializable
+
+/**
+ * The main file includes the groups of all [firstPathParts] - [resourceGroups] may only hold the groups that changed and need to be written.
+ */
+data class RamlApi @JvmOverloads constructor(val title: String,
+                                             val baseUri: String?,
+                                             val ramlVersion: RamlVersion,
+                                             private val _resourceGroups: List<ResourceGroup>,
+                                             private val _firstPathParts: Collection<String> = _resourceGroups.map { it.firstPathPart }) {
     val resourceGroups by lazy {
         _resourceGroups.sortedBy { it.firstPathPart }
     }
 
+    val firstPathParts by lazy {
+        _firstPathParts.sorted()
+    }
+
     fun toMainFileMap(groupFileNameProvider: (String) -> String) =
             mapOf("title" to title)
                     .let { if (baseUri != null) it.plus("baseUri" to baseUri) else it }
-                    .plus(resourceGroups.map { it.firstPathPart to Include(groupFileNameProvider(it.firstPathPart)) } )
+                    .plus(firstPathParts.map { it to Include(groupFileNameProvider(it)) } )
                     .toMap()
 
     fun toResourceGroupRamlMaps(ramlVersion: RamlVersion) = resourceGroups.map { it.toRamlMap(ramlVersion) }
@@ -22,7 +34,16 @@ enum class RamlVersion(val versionString: String) {
     V_0_8("#%RAML 0.8")
 }
 
-interface ToRamlMap { fun toRamlMap(ramlVersion: RamlVersion): Map<*, *> }
+interface ToRamlMap {
+    fun toRamlMap(ramlVersion: RamlVersion): Map<*, *>
+
+    /**
+     * Emits the entries of [toRamlMap] into the current mapping of the emitter.
+     * Types with many entries emit them while walking their content instead of building the map first.
+     */
+    fun emitRaml(emitter: RamlEmitter, ramlVersion: RamlVersion) =
+            toRamlMap(ramlVersion).forEach { (key, value) -> emitter.entry(key, value) }
+}
 
 data class ResourceGroup(val firstPathPart: String, private val _ramlResources: List<RamlResource>): ToRamlMap {
     val ramlResources by lazy {
@@ -31,9 +52,12 @@ data class ResourceGroup(val firstPathPart: String, private val _ramlResources:
 
     override fun toRamlMap(ramlVersion: RamlVersion): Map<*, *> =
         ramlResources.flatMap { it.toRamlMap(ramlVersion).toList() }.toMap()
+
+    override fun emitRaml(emitter: RamlEmitter, ramlVersion: RamlVersion) =
+        ramlResources.forEach { it.emitRaml(emitter, ramlVersion) }
 }
 
-data class Parameter(val name: String, val description: String, val type: String): ToRamlMap {
+data class Parameter(val name: String, val description: String, val type: String): ToRamlMap, Serializable {
     override fun toRamlMap(ramlVersion: RamlVersion): Map<*, *> =
         mapOf(name to mapOf(
                 "description" to description,
@@ -48,10 +72,14 @@ fun List<ToRamlMap>.toRamlMap(key: String, ramlVersion: RamlVersion): Map<*, *>
 fun List<ToRamlMap>.toRamlMap(ramlVersion: RamlVersion): Map<*, *> =
         this.flatMap { it.toRamlMap(ramlVersion).toList() }.toMap()
 
+fun List<ToRamlMap>.emitRaml(key: String, emitter: RamlEmitter, ramlVersion: RamlVersion) {
+    if (isNotEmpty()) emitter.entry(key) { forEach { it.emitRaml(this, ramlVersion) } }
+}
+
 data class Body(val contentType: String,
                 val example: Include? = null,
                 val schema: Include? = null,
-                val examples: List<Include> = emptyList()): ToRamlMap {
+                val examples: List<Include> = emptyList()): ToRamlMap, Serializable {
 
     override fun toRamlMap(ramlVersion: RamlVersion): Map<*, *> {
 
@@ -71,7 +99,7 @@ data class Body(val contentType: String,
 
 data class Response(val status: Int,
                     val bodies: List<Body>,
-                    val headers: List<Header> = emptyList()): ToRamlMap {
+                    val headers: List<Header> = emptyList()): ToRamlMap, Serializable {
     override fun toRamlMap(ramlVersion: RamlVersion): Map<*, *> =
             if (bodies.isEmpty() && headers.isEmpty())
                 mapOf(status to null)
@@ -79,6 +107,15 @@ data class Response(val status: Int,
                 mapOf(status to (if (bodies.isEmpty()) emptyMap<String, Any>() else bodies.toRamlMap("body", ramlVersion))
                         .plus(headers.toRamlMap("headers", ramlVersion))
                 )
+
+    override fun emitRaml(emitter: RamlEmitter, ramlVersion: RamlVersion) =
+            if (bodies.isEmpty() && headers.isEmpty())
+                emitter.entry(status, null)
+            else
+                emitter.entry(status) {
+                    bodies.emitRaml("body", this, ramlVersion)
+                    headers.emitRaml("headers", this, ramlVersion)
+                }
 }
 
 data class Method(val method: String,
@@ -88,7 +125,7 @@ data class Method(val method: String,
                   val securedBy: List<String> = emptyList(),
                   val headers: List<Header> = emptyList(),
                   val requestBodies: List<Body> = emptyList(),
-                  val responses: List<Response> = emptyList()): ToRamlMap {
+                  val responses: List<Response> = emptyList()): ToRamlMap, Serializable {
 
     override fun toRamlMap(ramlVersion: RamlVersion): Map<*, *> =
             mapOf(method to (if (description != null) mapOf("description" to description) else emptyMap())
@@ -99,9 +136,20 @@ data class Method(val method: String,
                     .plus(requestBodies.toRamlMap("body", ramlVersion))
                     .plus(responses.toRamlMap("responses", ramlVersion))
             )
+
+    override fun emitRaml(emitter: RamlEmitter, ramlVersion: RamlVersion) =
+            emitter.entry(method) {
+                if (description != null) entry("description", description)
+                queryParameters.emitRaml("queryParameters", this, ramlVersion)
+                if (traits.isNotEmpty()) entry("is", traits)
+                if (securedBy.isNotEmpty()) entry("securedBy", securedBy)
+                headers.emitRaml("headers", this, ramlVersion)
+                requestBodies.emitRaml("body", this, ramlVersion)
+                responses.emitRaml("responses", this, ramlVersion)
+            }
 }
 
-data class Header(val name: String, val description: String, val example: String): ToRamlMap {
+data class Header(val name: String, val description: String, val example: String): ToRamlMap, Serializable {
     override fun toRamlMap(ramlVersion: RamlVersion): Map<*, *> =
             mapOf(name to mapOf(
                     "description" to description,
@@ -113,7 +161,7 @@ data class RamlResource(val path: String,
                         val methods: List<Method> = emptyList(),
                         val uriParameters: List<Parameter> = emptyList()): ToRamlMap {
     val firstPathPart by lazy {
-        path.split("/").find { !it.isEmpty() }?.let{ "/$it" }?:"/"
+        firstPathPart(path)
     }
 
     override fun toRamlMap(ramlVersion: RamlVersion): Map<*, *> =
@@ -121,6 +169,14 @@ data class RamlResource(val path: String,
                     .plus(methods.flatMap { it.toRamlMap(ramlVersion).toList() }.toMap() )
                     .let { if (path.isEmpty()) it else mapOf(path to it)}
 
+    override fun emitRaml(emitter: RamlEmitter, ramlVersion: RamlVersion) {
+        val entries: RamlEmitter.() -> Unit = {
+            uriParameters.emitRaml("uriParameters", this, ramlVersion)
+            methods.forEach { it.emitRaml(this, ramlVersion) }
+        }
+        if (path.isEmpty()) emitter.entries() else emitter.entry(path, entries)
+    }
+
     companion object {
         fun fromFragments(allFragments: List<RamlFragment>, jsonSchemaMerger: JsonSchemaMerger): RamlResource {
             if (allFragments.groupBy { it.path }.size > 1)
@@ -145,14 +201,32 @@ data class RamlResource(val path: String,
             return RamlResource(allFragments.first().path, methods, allFragments.first().uriParameters)
         }
 
+        /**
+         * The public view of a resource merged from the given fragments - null if all its fragments are private.
+         *
+         * The resource is only merged again if a method has private and public fragments -
+         * otherwise the private methods are just left out and the merged schemas are reused.
+         */
+        fun publicResource(resource: RamlResource, allFragments: List<RamlFragment>, jsonSchemaMerger: JsonSchemaMerger): RamlResource? {
+            val publicFragments = allFragments.filterNot { it.privateResource }
+            return when {
+                publicFragments.size == allFragments.size -> resource
+                publicFragments.isEmpty() -> null
+                allFragments.groupBy { it.method.method }.values.all { fragments -> fragments.map { it.privateResource }.distinct().size == 1 } ->
+                    resource.copy(methods = resource.methods.filterNot { it.traits.contains("private") })
+                else -> fromFragments(publicFragments, jsonSchemaMerger)
+            }
+        }
+
         private fun mergeBodiesWithSameContentType(
                 bodiesByContentType: Map<String, List<Body>>,
                 jsonSchemaMerger: JsonSchemaMerger): List<Body> {
             return bodiesByContentType.map { (contentType, bodies) ->
                 Body(
                         contentType = contentType,
-                        examples = bodies.mapNotNull { it.example },
+                        examples = bodies.mapNotNull { it.example }.distinct(),
                         schema = bodies.mapNotNull { it.schema }
+                                .distinct()
                                 .let { if (it.isNotEmpty()) jsonSchemaMerger.mergeSchemas(it) else null }
                 ) }
         }
@@ -163,7 +237,7 @@ data class RamlResource(val path: String,
             return responsesByStatus.map { (status, responses) ->
                 Response(
                         status = status,
-                        headers = responses.flatMap { it.headers },
+                        headers = responses.flatMap { it.headers }.associateBy { it.name }.values.toList(),
                         bodies = mergeBodiesWithSameContentType(responses
                                 .flatMap { it.bodies }
                                 .groupBy { it.contentType }, jsonSchemaMerger)
@@ -173,14 +247,20 @@ data class RamlResource(val path: String,
     }
 }
 
+private fun firstPathPart(path: String) =
+        path.split("/").find { !it.isEmpty() }?.let{ "/$it" }?:"/"
+
 data class RamlFragment(val id: String,
                         val path: String,
                         val method: Method,
-                        val uriParameters: List<Parameter> = emptyList()) {
+                        val uriParameters: List<Parameter> = emptyList()): Serializable {
 
     @Suppress("UNCHECKED_CAST")
     val privateResource = method.traits.contains("private")
 
+    val firstPathPart
+        get() = firstPathPart(path)
+
     companion object {
         @Suppress("UNCHECKED_CAST")
         fun fromYamlMap(id: String, yamlMap: Map<*, *>): RamlFragment {
@@ -197,13 +277,15 @@ data class RamlFragment(val id: String,
             )
         }
 
-        fun fromFile(file: File): RamlFragment {
+        fun fromFile(file: File): RamlFragment = fromFile(file, file.readBytes())
+
+        fun fromFile(file: File, content: ByteArray): RamlFragment {
             val id = file.path
                     .removeSuffix(file.name)
                     .removeSuffix(File.separator)
                     .split(File.separator)
                     .let { it[it.size - 1] }
-            return fromYamlMap(id, RamlParser.parseFragment(file))
+            return RamlParser.readFragment(id, content.inputStream())
         }
 
         private fun body(map: Map<*,*>): Body {
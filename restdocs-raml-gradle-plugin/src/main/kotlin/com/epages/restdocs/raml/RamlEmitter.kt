@@ -0,0 +1,87 @@
+package com.epages.restdocs.raml
+
+import com.epages.restdocs.raml.RamlParser.includeTag
+import org.yaml.snakeyaml.DumperOptions
+import org.yaml.snakeyaml.DumperOptions.ScalarStyle.LITERAL
+import org.yaml.snakeyaml.DumperOptions.ScalarStyle.PLAIN
+import org.yaml.snakeyaml.emitter.Emitter
+import org.yaml.snakeyaml.events.DocumentEndEvent
+import org.yaml.snakeyaml.events.DocumentStartEvent
+import org.yaml.snakeyaml.events.ImplicitTuple
+import org.yaml.snakeyaml.events.MappingEndEvent
+import org.yaml.snakeyaml.events.MappingStartEvent
+import org.yaml.snakeyaml.events.ScalarEvent
+import org.yaml.snakeyaml.events.SequenceEndEvent
+import org.yaml.snakeyaml.events.SequenceStartEvent
+import org.yaml.snakeyaml.events.StreamEndEvent
+import org.yaml.snakeyaml.events.StreamStartEvent
+import org.yaml.snakeyaml.nodes.NodeId
+import org.yaml.snakeyaml.nodes.Tag
+import org.yaml.snakeyaml.resolver.Resolver
+import java.io.Writer
+
+/**
+ * Writes YAML by emitting the events of the YAML serializer while the model is walked - no map of the whole document is built.
+ *
+ * Scalars are tagged and styled the way [org.yaml.snakeyaml.Yaml.dump] with [IncludeRepresenter] does,
+ * so the output is the same as dumping the result of [ToRamlMap.toRamlMap].
+ */
+class RamlEmitter(writer: Writer, private val options: DumperOptions) {
+
+    private val emitter = Emitter(writer, options)
+
+    fun document(content: RamlEmitter.() -> Unit) {
+        emitter.emit(StreamStartEvent(null, null))
+        emitter.emit(DocumentStartEvent(null, null, options.isExplicitStart, options.version, options.tags))
+        content()
+        emitter.emit(DocumentEndEvent(null, null, options.isExplicitEnd))
+        emitter.emit(StreamEndEvent(null, null))
+    }
+
+    fun mapping(entries: RamlEmitter.() -> Unit) {
+        emitter.emit(MappingStartEvent(null, Tag.MAP.value, true, null, null, options.defaultFlowStyle))
+        entries()
+        emitter.emit(MappingEndEvent(null, null))
+    }
+
+    fun entry(key: Any?, entries: RamlEmitter.() -> Unit) {
+        value(key)
+        mapping(entries)
+    }
+
+    fun entry(key: Any?, value: Any?) {
+        value(key)
+        value(value)
+    }
+
+    fun value(value: Any?) {
+        when (value) {
+            is Map<*, *> -> mapping { value.forEach { (key, nestedValue) -> entry(key, nestedValue) } }
+            is Iterable<*> -> {
+                emitter.emit(SequenceStartEvent(null, Tag.SEQ.value, true, null, null, options.defaultFlowStyle))
+                value.forEach { value(it) }
+                emitter.emit(SequenceEndEvent(null, null))
+            }
+            is Include -> scalar(includeTag, value.location)
+            null -> scalar(Tag.NULL, "null")
+            is Int, is Long -> scalar(Tag.INT, value.toString())
+            is Boolean -> scalar(Tag.BOOL, value.toString())
+            else -> scalar(Tag.STR, value.toString())
+        }
+    }
+
+    private fun scalar(tag: Tag, value: String) {
+        val implicit = ImplicitTuple(
+                tag == RESOLVER.resolve(NodeId.scalar, value, true),
+                tag == RESOLVER.resolve(NodeId.scalar, value, false))
+        val style = if (tag == Tag.STR && options.defaultScalarStyle == PLAIN && MULTILINE_PATTERN.containsMatchIn(value)) LITERAL
+        else options.defaultScalarStyle
+        emitter.emit(ScalarEvent(null, tag.value, implicit, value, null, null, style))
+    }
+
+    companion object {
+        private val RESOLVER = Resolver()
+
+        private val MULTILINE_PATTERN = Regex("\n|\u0085|\u2028|\u2029")
+    }
+}
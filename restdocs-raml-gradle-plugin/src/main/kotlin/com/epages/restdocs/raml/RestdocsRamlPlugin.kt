@@ -23,6 +23,7 @@ class RestdocsRamlPlugin: Plugin<Project> {
 
                     outputDirectory = ramldoc.outputDirectory
                     snippetsDirectory = ramldoc.snippetsDirectory
+                    copyStrategy = ramldoc.copyStrategy
 
                     outputFileNamePrefix = ramldoc.outputFileNamePrefix
                 }
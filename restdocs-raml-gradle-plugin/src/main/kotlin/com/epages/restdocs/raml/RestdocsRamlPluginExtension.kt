@@ -10,6 +10,7 @@ open class RestdocsRamlPluginExtension(project: Project) {
     var separatePublicApi: Boolean = false
     var outputDirectory = "build/ramldoc"
     var snippetsDirectory = "build/generated-snippets"
+    var copyStrategy = CopyStrategy.COPY.id
 
     var outputFileNamePrefix = "api"
 }
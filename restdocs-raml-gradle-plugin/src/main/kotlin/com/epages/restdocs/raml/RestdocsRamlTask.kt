@@ -2,14 +2,37 @@ package com.epages.restdocs.raml
 
 import com.epages.restdocs.raml.RamlVersion.V_0_8
 import com.epages.restdocs.raml.RamlVersion.V_1_0
+import com.epages.restdocs.raml.SnippetFileType.EXAMPLE
+import com.epages.restdocs.raml.SnippetFileType.FRAGMENT
+import com.epages.restdocs.raml.SnippetFileType.SCHEMA
+import com.epages.restdocs.raml.SnippetManifest.SnippetFile
 import org.gradle.api.DefaultTask
+import org.gradle.api.tasks.CacheableTask
 import org.gradle.api.tasks.Input
+import org.gradle.api.tasks.InputDirectory
+import org.gradle.api.tasks.Internal
 import org.gradle.api.tasks.Optional
+import org.gradle.api.tasks.OutputDirectory
+import org.gradle.api.tasks.OutputFile
+import org.gradle.api.tasks.PathSensitive
+import org.gradle.api.tasks.PathSensitivity.RELATIVE
 import org.gradle.api.tasks.TaskAction
+import org.gradle.api.tasks.incremental.IncrementalTaskInputs
+import java.io.File
 import java.nio.file.Files
-import java.nio.file.StandardCopyOption
-
-
+import java.util.IdentityHashMap
+
+
+/**
+ * The snippets directory and the output directory are the input and output of the task - so Gradle can tell
+ * if the aggregated API is up to date and can take it from the build cache.
+ *
+ * The task is incremental - the parsed fragments are kept in a [FragmentIndex] and only the fragments that changed
+ * are parsed again. Only the group files of the resources these fragments belong to are written again.
+ *
+ * Fragments are parsed and resources are merged in parallel - bounded by the maximum number of workers of the build.
+ */
+@CacheableTask
 open class RestdocsRamlTask: DefaultTask() {
 
     @Input
@@ -27,54 +50,154 @@ open class RestdocsRamlTask: DefaultTask() {
     var separatePublicApi: Boolean = false
 
     @Input
+    var copyStrategy: String = CopyStrategy.COPY.id
+
+    @Internal
     lateinit var outputDirectory: String
 
-    @Input
+    @Internal
     lateinit var snippetsDirectory: String
 
     @Input
     lateinit var outputFileNamePrefix: String
 
-    private val outputDirectoryFile
+    @get:OutputDirectory
+    val outputDirectoryFile
         get() = project.file(outputDirectory)
 
-    private val snippetsDirectoryFile
+    @get:InputDirectory
+    @get:PathSensitive(RELATIVE)
+    val snippetsDirectoryFile
         get() = project.file(snippetsDirectory)
 
+    /**
+     * The index is an output as well - so it always matches the outputs restored from the build cache.
+     */
+    @get:OutputFile
+    val fragmentIndexFile
+        get() = File(temporaryDir, "fragment-index.bin")
+
+
+    private val parallelMapper
+        get() = ParallelMapper(project.gradle.startParameter.maxWorkerCount)
 
     @TaskAction
-    fun aggregateRamlFragments() {
+    fun aggregateRamlFragments(inputs: IncrementalTaskInputs) {
+        val changes = if (inputs.isIncremental) SnippetChanges().apply {
+            inputs.outOfDate { outOfDate += it.file }
+            inputs.removed { removed += it.file }
+        } else null
+
+        aggregateRamlFragments(changes)
+    }
+
+    /**
+     * @param changes the changed snippet files since the last run - null if they are not known
+     */
+    private fun aggregateRamlFragments(changes: SnippetChanges?) {
         outputDirectoryFile.mkdirs()
 
-        copyBodyJsonFilesToOutput()
+        val previousIndex = FragmentIndex.read(fragmentIndexFile)
+        val index = previousIndex ?: FragmentIndex()
+        val changedGroups = if (changes != null && previousIndex != null)
+            updateChangedFragments(index, changes)
+        else
+            updateAllFragments(index)
 
-        val ramlFragments = snippetsDirectoryFile.walkTopDown()
-                .filter { it.name is String && it.name.startsWith("raml-resource") }
-                .map { RamlFragment.fromFile(it) }
-                .toList()
+        writeFiles(index.fragments, changedGroups)
 
-        writeFiles(ramlFragments, ".raml")
+        index.write(fragmentIndexFile)
+    }
 
-        if (separatePublicApi)
-            writeFiles(ramlFragments.filterNot { it.privateResource }, "-public.raml")
+    /**
+     * @return the first path parts of the groups that changed
+     */
+    private fun updateChangedFragments(index: FragmentIndex, changes: SnippetChanges): Set<String> {
+        val changedGroups = mutableSetOf<String>()
+        val outOfDateFiles = changes.outOfDate.filter { it.isFile }.groupBy { SnippetFileType.of(it.name) }
+        changedGroups += index.updateAll(outOfDateFiles[FRAGMENT].orEmpty().associateBy { relativePath(it) }, parallelMapper)
+        (outOfDateFiles[EXAMPLE].orEmpty() + outOfDateFiles[SCHEMA].orEmpty()).forEach { file ->
+            copyBodyJsonFileToOutput(SnippetManifest.snippetFile(snippetsDirectoryFile.toPath(), file.toPath()))
+            changedGroups += index.groupsInDirectory(relativePath(file.parentFile))
+        }
+        changes.removed.groupBy { SnippetFileType.of(it.name) }.forEach { (type, files) ->
+            when (type) {
+                FRAGMENT -> files.forEach { changedGroups += index.remove(relativePath(it)) }
+                EXAMPLE, SCHEMA -> files.forEach { Files.deleteIfExists(outputDirectoryFile.toPath().resolve(it.name)) }
+                null -> Unit
+            }
+        }
+        return changedGroups
     }
 
+    /**
+     * Without the state of the last run all group files are written - the index still saves parsing unchanged fragments.
+     *
+     * @return null as all groups are considered changed
+     */
+    private fun updateAllFragments(index: FragmentIndex): Set<String>? {
+        val manifest = SnippetManifest.scan(snippetsDirectoryFile.toPath())
 
-    private fun writeFiles(ramlFragments: List<RamlFragment>, fileNameSuffix: String) {
+        copyBodyJsonFilesToOutput(manifest.examples + manifest.schemas)
 
-        val ramlApi = ramlFragments.groupBy { it.path }
-                .map { (_, fragmentsWithSamePath) -> RamlResource.fromFragments(fragmentsWithSamePath, JsonSchemaMerger(outputDirectoryFile)) }
-                .let { ramlResources -> ramlResources
-                        .groupBy { it.firstPathPart }
-                        .map { (firstPathPart, resources) -> ResourceGroup(firstPathPart, resources) } }
-                .let { RamlApi(apiTitle, apiBaseUri, ramlVersion(), it) }
+        val fragmentFiles = manifest.fragments.associate { it.relativePath to it.file }
+        index.retainAll(fragmentFiles.keys)
+        index.updateAll(fragmentFiles, parallelMapper)
+        return null
+    }
 
+    /**
+     * The resources are merged once - the public api is a view on them without the private methods.
+     *
+     * @param changedGroups the first path parts of the groups to write - all groups are written if null
+     */
+    private fun writeFiles(ramlFragments: List<RamlFragment>, changedGroups: Set<String>?) {
+        val jsonSchemaMerger = JsonSchemaMerger(outputDirectoryFile)
+
+        val fragmentsByPath = ramlFragments
+                .filter { changedGroups == null || changedGroups.contains(it.firstPathPart) }
+                .groupBy { it.path }
+                .values.toList()
+        val resources = parallelMapper.map(fragmentsByPath) { RamlResource.fromFragments(it, jsonSchemaMerger) }
+        val resourceGroups = resourceGroups(resources)
+        val writtenGroups = IdentityHashMap<ResourceGroup, File>()
+
+        writeApi(resourceGroups, ramlFragments.map { it.firstPathPart }.toSet(), ".raml", changedGroups, writtenGroups)
+
+        if (separatePublicApi) {
+            val publicResources = resources.zip(fragmentsByPath)
+                    .mapNotNull { (resource, fragments) -> RamlResource.publicResource(resource, fragments, jsonSchemaMerger) }
+            // groups without private resources are the same for both apis - so they are only written once
+            val resourceGroupsByFirstPathPart = resourceGroups.associateBy { it.firstPathPart }
+            val publicResourceGroups = resourceGroups(publicResources)
+                    .map { group -> resourceGroupsByFirstPathPart[group.firstPathPart]?.takeIf { it == group } ?: group }
+            val publicFirstPathParts = ramlFragments.filterNot { it.privateResource }.map { it.firstPathPart }.toSet()
+
+            writeApi(publicResourceGroups, publicFirstPathParts, "-public.raml", changedGroups, writtenGroups)
+        }
+    }
+
+    private fun resourceGroups(resources: List<RamlResource>) =
+            resources.groupBy { it.firstPathPart }
+                    .map { (firstPathPart, resourcesOfGroup) -> ResourceGroup(firstPathPart, resourcesOfGroup) }
+
+    private fun writeApi(resourceGroups: List<ResourceGroup>,
+                         firstPathParts: Set<String>,
+                         fileNameSuffix: String,
+                         changedGroups: Set<String>?,
+                         writtenGroups: MutableMap<ResourceGroup, File>) {
         RamlWriter.writeApi(
                 fileFactory = { filename -> project.file("$outputDirectory/$filename") },
-                api = ramlApi,
+                api = RamlApi(apiTitle, apiBaseUri, ramlVersion(), resourceGroups, firstPathParts),
                 apiFileName = "$outputFileNamePrefix$fileNameSuffix",
-                groupFileNameProvider = { path -> groupFileName(path, fileNameSuffix) }
+                groupFileNameProvider = { path -> groupFileName(path, fileNameSuffix) },
+                writtenGroups = writtenGroups,
+                mapper = parallelMapper
         )
+
+        changedGroups.orEmpty()
+                .filterNot { firstPathParts.contains(it) }
+                .forEach { project.file("$outputDirectory/${groupFileName(it, fileNameSuffix)}").delete() }
     }
 
     private fun groupFileName(path: String, fileNameSuffix: String): String {
@@ -90,10 +213,39 @@ open class RestdocsRamlTask: DefaultTask() {
 
     private fun ramlVersion() = if (ramlVersion == "1.0") V_1_0 else V_0_8
 
-    private fun copyBodyJsonFilesToOutput() {
-        snippetsDirectoryFile.walkTopDown().forEach {
-                    if (it.name.endsWith("-request.json") || it.name.endsWith("-response.json"))
-                        Files.copy(it.toPath(), outputDirectoryFile.toPath().resolve(it.name), StandardCopyOption.REPLACE_EXISTING)
-                }
+    /**
+     * Examples and schemas in the output directory without a source in the snippets directory are removed.
+     */
+    private fun copyBodyJsonFilesToOutput(files: List<SnippetFile>) {
+        files.forEach { copyBodyJsonFileToOutput(it) }
+
+        val sourceNames = files.map { it.path.fileName.toString() }.toSet()
+        outputDirectoryFile.listFiles().orEmpty()
+                .filter { SnippetFileType.of(it.name).let { type -> type == EXAMPLE || type == SCHEMA } }
+                .filterNot { sourceNames.contains(it.name) }
+                .forEach { it.delete() }
+    }
+
+    private fun copyBodyJsonFileToOutput(file: SnippetFile) {
+        val target = outputDirectoryFile.toPath().resolve(file.path.fileName)
+        // content addressed files are named after their content - an existing file is already a copy
+        if (!(isContentAddressed(file.file) && Files.exists(target)))
+            CopyStrategy.of(copyStrategy).transfer(file, target)
+    }
+
+    private fun relativePath(file: File) = SnippetManifest.relativePath(snippetsDirectoryFile.toPath(), file.toPath())
+
+    private fun isContentAddressed(file: File) = file.parentFile.name == CONTENT_ADDRESSED_DIRECTORY
+
+    private class SnippetChanges {
+        val outOfDate = mutableListOf<File>()
+        val removed = mutableListOf<File>()
+    }
+
+    companion object {
+        /**
+         * restdocs-raml writes bodies and schemas into this directory when content addressed storage is enabled
+         */
+        const val CONTENT_ADDRESSED_DIRECTORY = "raml-content"
     }
 }
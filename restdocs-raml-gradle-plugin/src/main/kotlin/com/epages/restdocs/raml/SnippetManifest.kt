@@ -0,0 +1,75 @@
+package com.epages.restdocs.raml
+
+import java.io.File
+import java.io.IOException
+import java.nio.file.FileVisitOption.FOLLOW_LINKS
+import java.nio.file.FileVisitResult
+import java.nio.file.FileVisitResult.CONTINUE
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.SimpleFileVisitor
+import java.nio.file.attribute.BasicFileAttributes
+import java.util.EnumSet
+
+enum class SnippetFileType {
+    FRAGMENT, EXAMPLE, SCHEMA;
+
+    companion object {
+        /**
+         * @return null if the ramldoc task does not use the file
+         */
+        fun of(fileName: String): SnippetFileType? = when {
+            fileName.startsWith("raml-resource") -> FRAGMENT
+            fileName.endsWith("-schema-request.json") || fileName.endsWith("-schema-response.json") -> SCHEMA
+            fileName.endsWith("-request.json") || fileName.endsWith("-response.json") -> EXAMPLE
+            else -> null
+        }
+    }
+}
+
+/**
+ * The files of the snippets directory used by the ramldoc task - collected in a single walk over the directory.
+ *
+ * The attributes read by the walk are kept, so the files do not need to be accessed again to find out their size or modification time.
+ */
+class SnippetManifest(val fragments: List<SnippetFile>, val examples: List<SnippetFile>, val schemas: List<SnippetFile>) {
+
+    data class SnippetFile(val path: Path, val relativePath: String, val size: Long, val lastModified: Long) {
+        val file: File
+            get() = path.toFile()
+    }
+
+    companion object {
+
+        fun scan(snippetsDirectory: Path): SnippetManifest {
+            val filesByType = SnippetFileType.values().associate { it to mutableListOf<SnippetFile>() }
+            if (Files.isDirectory(snippetsDirectory)) {
+                Files.walkFileTree(snippetsDirectory, EnumSet.of(FOLLOW_LINKS), Int.MAX_VALUE, object : SimpleFileVisitor<Path>() {
+                    override fun visitFile(file: Path, attributes: BasicFileAttributes): FileVisitResult {
+                        val type = SnippetFileType.of(file.fileName.toString())
+                        if (type != null && attributes.isRegularFile) {
+                            filesByType.getValue(type) += SnippetFile(
+                                    path = file,
+                                    relativePath = relativePath(snippetsDirectory, file),
+                                    size = attributes.size(),
+                                    lastModified = attributes.lastModifiedTime().toMillis())
+                        }
+                        return CONTINUE
+                    }
+
+                    override fun visitFileFailed(file: Path, exception: IOException) = CONTINUE
+                })
+            }
+            val sorted = { type: SnippetFileType -> filesByType.getValue(type).sortedBy { it.relativePath } }
+            return SnippetManifest(sorted(SnippetFileType.FRAGMENT), sorted(SnippetFileType.EXAMPLE), sorted(SnippetFileType.SCHEMA))
+        }
+
+        fun snippetFile(snippetsDirectory: Path, file: Path): SnippetFile =
+                Files.readAttributes(file, BasicFileAttributes::class.java).let { attributes ->
+                    SnippetFile(file, relativePath(snippetsDirectory, file), attributes.size(), attributes.lastModifiedTime().toMillis())
+                }
+
+        fun relativePath(snippetsDirectory: Path, file: Path): String =
+                snippetsDirectory.relativize(file).toString().replace(File.separatorChar, '/')
+    }
+}
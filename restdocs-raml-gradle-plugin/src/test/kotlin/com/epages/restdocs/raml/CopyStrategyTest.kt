@@ -0,0 +1,56 @@
+package com.epages.restdocs.raml
+
+import org.amshove.kluent.`should be false`
+import org.amshove.kluent.`should be true`
+import org.amshove.kluent.`should equal`
+import org.amshove.kluent.`should throw`
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.File
+import java.nio.file.Files
+
+class CopyStrategyTest {
+
+    @Rule @JvmField val tempFolder = TemporaryFolder()
+
+    @Test
+    fun `should skip copying unchanged files`() {
+        val source = givenSourceFile("{\"id\": 1}")
+        val target = File(tempFolder.root, "target.json").toPath()
+
+        CopyStrategy.COPY.transfer(source, target).`should be true`()
+        CopyStrategy.COPY.transfer(source, target).`should be false`()
+
+        target.toFile().setLastModified(1_000_000_000L)
+        CopyStrategy.COPY.transfer(source, target).`should be false`()
+
+        target.toFile().writeText("{\"id\": 2}")
+        CopyStrategy.COPY.transfer(source, target).`should be true`()
+        target.toFile().readText() `should equal` "{\"id\": 1}"
+    }
+
+    @Test
+    fun `should link files`() {
+        val source = givenSourceFile("{\"id\": 1}")
+        val target = tempFolder.newFile("target.json").toPath()
+
+        CopyStrategy.HARD_LINK.transfer(source, target).`should be true`()
+        CopyStrategy.HARD_LINK.transfer(source, target).`should be false`()
+
+        Files.isSameFile(source.path, target).`should be true`()
+    }
+
+    @Test
+    fun `should fail on unknown strategy`() {
+        CopyStrategy.of("hardLink") `should equal` CopyStrategy.HARD_LINK
+
+        val unknownStrategy = { CopyStrategy.of("symlink") }
+
+        unknownStrategy `should throw` IllegalArgumentException::class
+    }
+
+    private fun givenSourceFile(content: String) =
+            tempFolder.newFolder("snippets").toPath()
+                    .let { directory -> SnippetManifest.snippetFile(directory, directory.resolve("source.json").apply { toFile().writeText(content) }) }
+}
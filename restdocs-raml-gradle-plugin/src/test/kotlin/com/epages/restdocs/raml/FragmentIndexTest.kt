@@ -0,0 +1,55 @@
+package com.epages.restdocs.raml
+
+import org.amshove.kluent.`should be null`
+import org.amshove.kluent.`should be`
+import org.amshove.kluent.`should equal`
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.File
+
+class FragmentIndexTest: FragmentFixtures {
+
+    @Rule @JvmField val tempFolder = TemporaryFolder()
+
+    private val index = FragmentIndex()
+
+    @Test
+    fun `should report groups of changed fragments`() {
+        val fragmentFile = givenFragmentFile("payment-integration-get", rawMinimalFragment())
+
+        index.update("payment-integration-get/raml-resource.raml", fragmentFile) `should equal` setOf("/payment-integrations")
+        index.update("payment-integration-get/raml-resource.raml", fragmentFile) `should equal` emptySet<String>()
+
+        fragmentFile.writeText("/carts:\n  get:\n    description: some\n")
+
+        index.update("payment-integration-get/raml-resource.raml", fragmentFile) `should equal` setOf("/payment-integrations", "/carts")
+        index.fragments.map { it.path } `should equal` listOf("/carts")
+        index.groupsInDirectory("payment-integration-get") `should equal` setOf("/carts")
+        index.remove("payment-integration-get/raml-resource.raml") `should equal` setOf("/carts")
+        index.fragments `should equal` emptyList<RamlFragment>()
+    }
+
+    @Test
+    fun `should keep parsed fragments between runs`() {
+        index.update("payment-integration-get/raml-resource.raml", givenFragmentFile("payment-integration-get", rawPrivateFragment()))
+        val indexFile = File(tempFolder.root, "index/fragment-index.bin")
+
+        index.write(indexFile)
+        val readIndex = FragmentIndex.read(indexFile)
+
+        readIndex?.fragments `should equal` index.fragments
+        readIndex?.fragments?.first()?.privateResource `should be` true
+    }
+
+    @Test
+    fun `should ignore unreadable index`() {
+        val indexFile = tempFolder.newFile().apply { writeText("no index") }
+
+        FragmentIndex.read(indexFile).`should be null`()
+        FragmentIndex.read(File(tempFolder.root, "missing")).`should be null`()
+    }
+
+    private fun givenFragmentFile(operation: String, content: String) =
+            File(tempFolder.newFolder(operation), "raml-resource.raml").apply { writeText(content) }
+}
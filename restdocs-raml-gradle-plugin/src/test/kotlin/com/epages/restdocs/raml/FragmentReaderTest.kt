@@ -0,0 +1,38 @@
+package com.epages.restdocs.raml
+
+import org.amshove.kluent.`should equal`
+import org.amshove.kluent.`should throw`
+import org.junit.Test
+
+class FragmentReaderTest: FragmentFixtures {
+
+    @Test
+    fun `should read fragments like the yaml map`() {
+        listOf(rawPrivateFragment(), rawFragmentWithoutSchema(), rawMinimalFragment(), rawFragmentWithEmptyResponse(), rawFullFragment())
+                .forEach { raw ->
+                    RamlParser.readFragment("some", raw.byteInputStream()) `should equal` RamlFragment.fromYamlMap("some", parsedFragmentMap { raw })
+                }
+    }
+
+    @Test
+    fun `should skip unknown entries`() {
+        val fragment = RamlParser.readFragment("some", """
+            /carts:
+              get:
+                description: "some"
+                annotations: { owner: [ "team" ] }
+                responses:
+                  200:
+                    description: ok
+            """.trimIndent().byteInputStream())
+
+        fragment `should equal` RamlFragment("some", "/carts", Method(method = "get", description = "some", responses = listOf(Response(200, emptyList()))))
+    }
+
+    @Test
+    fun `should fail on empty fragment`() {
+        val reading = { RamlParser.readFragment("some", "".byteInputStream()) }
+
+        reading `should throw` IllegalArgumentException::class
+    }
+}
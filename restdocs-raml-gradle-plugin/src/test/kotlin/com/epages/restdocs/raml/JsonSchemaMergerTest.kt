@@ -3,9 +3,10 @@ package com.epages.restdocs.raml
 import com.jayway.jsonpath.JsonPath
 import org.amshove.kluent.`should be equal to`
 import org.amshove.kluent.`should be`
+import org.amshove.kluent.`should be false`
+import org.amshove.kluent.`should equal`
 import org.amshove.kluent.`should exist`
 import org.amshove.kluent.`should not be null`
-import org.amshove.kluent.shouldContainAll
 import org.junit.Rule
 import org.junit.Test
 import org.junit.rules.TemporaryFolder
@@ -79,14 +80,14 @@ class JsonSchemaMergerTest {
         val result = jsonSchemaMerger.mergeSchemas(includes)
 
         result.`should not be null`()
-        result.location `should be equal to` "schema0-merged.json"
+        result.location `should be equal to` "schema0-70ebf2bf2ecea008-merged.json"
         with(File(tempFolder.root, result.location)) {
             this.`should exist`()
             val mergedSchema = this.readText()
             JsonPath.read<Map<*,*>>(mergedSchema, "properties.weightBasedPrice").`should not be null`()
             JsonPath.read<Map<*,*>>(mergedSchema, "properties.fixedPrice").`should not be null`()
             JsonPath.read<Map<*,*>>(mergedSchema, "properties.third").`should not be null`()
-            JsonPath.read<List<String>>(mergedSchema, "required") shouldContainAll listOf("other", "name", "third")
+            JsonPath.read<Map<*,*>>(mergedSchema, "$").containsKey("required").`should be false`()
         }
     }
 
@@ -103,7 +104,62 @@ class JsonSchemaMergerTest {
             val mergedSchema = this.readText()
             JsonPath.read<Map<*,*>>(mergedSchema, "properties.weightBasedPrice").`should not be null`()
             JsonPath.read<Map<*,*>>(mergedSchema, "properties.fixedPrice").`should not be null`()
-            JsonPath.read<List<String>>(mergedSchema, "required") shouldContainAll listOf("other", "name")
+            JsonPath.read<Map<*,*>>(mergedSchema, "$").containsKey("required").`should be false`()
+        }
+    }
+
+    @Test
+    fun `should parse shared schema once`() {
+        val jsonSchemaMerger = JsonSchemaMerger(tempFolder.root)
+        givenIncludes(schema1, schema2, schema3)
+        jsonSchemaMerger.mergeSchemas(includes.take(2))
+        File(tempFolder.root, includes.first().location).delete()
+
+        val result = jsonSchemaMerger.mergeSchemas(listOf(includes[0], includes[2]))
+
+        with(File(tempFolder.root, result.location).readText()) {
+            JsonPath.read<Map<*,*>>(this, "properties.weightBasedPrice").`should not be null`()
+            JsonPath.read<Map<*,*>>(this, "properties.third").`should not be null`()
+        }
+    }
+
+    @Test
+    fun `should intersect required properties`() {
+        val jsonSchemaMerger = JsonSchemaMerger(tempFolder.root)
+        givenIncludes(schema2.replace("\"required\": [\"name\"]", "\"required\": [\"name\", \"fixedPrice\"]"),
+                schema2.replace("fixedPrice", "otherPrice"))
+
+        val result = jsonSchemaMerger.mergeSchemas(includes)
+
+        JsonPath.read<List<String>>(File(tempFolder.root, result.location).readText(), "required") `should equal` listOf("name")
+    }
+
+    @Test
+    fun `should not require properties of schema without required properties`() {
+        val jsonSchemaMerger = JsonSchemaMerger(tempFolder.root)
+        givenIncludes(schema2, schema2.replace(",\n  \"required\": [\"name\"]", ""))
+
+        val result = jsonSchemaMerger.mergeSchemas(includes)
+
+        JsonPath.read<Map<*,*>>(File(tempFolder.root, result.location).readText(), "$").containsKey("required").`should be false`()
+    }
+
+    @Test
+    fun `should write different merges of a shared schema to different files`() {
+        val jsonSchemaMerger = JsonSchemaMerger(tempFolder.root)
+        givenIncludes(schema1, schema2, schema3)
+
+        val first = jsonSchemaMerger.mergeSchemas(listOf(includes[0], includes[1]))
+        val second = jsonSchemaMerger.mergeSchemas(listOf(includes[2], includes[0]))
+
+        (first.location == second.location).`should be false`()
+        with(File(tempFolder.root, first.location).readText()) {
+            JsonPath.read<Map<*,*>>(this, "properties.fixedPrice").`should not be null`()
+            JsonPath.read<Map<*,*>>(this, "properties").containsKey("third").`should be false`()
+        }
+        with(File(tempFolder.root, second.location).readText()) {
+            JsonPath.read<Map<*,*>>(this, "properties.third").`should not be null`()
+            JsonPath.read<Map<*,*>>(this, "properties").containsKey("fixedPrice").`should be false`()
         }
     }
 
@@ -0,0 +1,22 @@
+package com.epages.restdocs.raml
+
+import org.amshove.kluent.`should equal`
+import org.amshove.kluent.`should throw`
+import org.junit.Test
+
+class ParallelMapperTest {
+
+    @Test
+    fun `should keep order of items`() {
+        val items = (1..1_000).toList()
+
+        ParallelMapper(4).map(items) { it * 2 } `should equal` items.map { it * 2 }
+    }
+
+    @Test
+    fun `should rethrow exception of transformation`() {
+        val mapping = { ParallelMapper(4).map(listOf("/carts", "")) { require(it.isNotEmpty()) { "empty path" } } }
+
+        mapping `should throw` IllegalArgumentException::class
+    }
+}
@@ -0,0 +1,82 @@
+package com.epages.restdocs.raml
+
+import org.amshove.kluent.`should be true`
+import org.amshove.kluent.`should equal`
+import org.junit.Test
+import org.yaml.snakeyaml.DumperOptions
+import org.yaml.snakeyaml.Yaml
+import java.io.StringWriter
+
+class RamlEmitterTest: FragmentFixtures {
+
+    private val options = DumperOptions().apply {
+        defaultFlowStyle = DumperOptions.FlowStyle.BLOCK
+        defaultScalarStyle = DumperOptions.ScalarStyle.PLAIN
+        isAllowReadOnlyProperties = true
+    }
+
+    @Test
+    fun `should emit groups like the dumped yaml map`() {
+        val fragments = listOf(rawFullFragment(), rawFragmentWithEmptyResponse(), rawPrivateFragment(), rawFragmentWithoutSchema())
+                .mapIndexed { index, raw -> RamlFragment.fromYamlMap("fragment-$index", parsedFragmentMap { raw }) }
+                .plus(RamlFragment("tags-list", "/tags", Method(
+                        method = "get",
+                        description = "List tags\nwith a second line",
+                        responses = listOf(Response(200, listOf(Body("application/hal+json", Include("tags-list-response.json")))))
+                )))
+                .plus(RamlFragment("tags-list-paged", "/tags", Method(
+                        method = "get",
+                        description = "List tags\nwith a second line",
+                        responses = listOf(Response(200, listOf(Body("application/hal+json", Include("tags-list-paged-response.json")))))
+                )))
+        val group = ResourceGroup("/tags", fragments
+                .groupBy { it.path }
+                .values
+                .map { RamlResource.fromFragments(it, NoOpJsonSchemaMerger) })
+
+        RamlVersion.values().forEach { ramlVersion ->
+            emitted { mapping { group.emitRaml(this, ramlVersion) } } `should equal` dumped(group.toRamlMap(ramlVersion))
+        }
+    }
+
+    @Test
+    fun `should emit a header shared by merged responses once`() {
+        val fragments = listOf("first", "second").map { example ->
+            RamlFragment("carts-create-$example", "/carts", Method(
+                    method = "post",
+                    description = "Create cart",
+                    responses = listOf(Response(201, emptyList(), listOf(Header("Location", "the cart", "/carts/$example"))))
+            ))
+        }
+        val resource = RamlResource.fromFragments(fragments, NoOpJsonSchemaMerger)
+
+        RamlVersion.values().forEach { ramlVersion ->
+            val raml = emitted { mapping { resource.emitRaml(this, ramlVersion) } }
+
+            raml `should equal` dumped(resource.toRamlMap(ramlVersion))
+            raml.lines().count { it.trim() == "Location:" } `should equal` 1
+            raml.contains("/carts/second").`should be true`()
+        }
+    }
+
+    @Test
+    fun `should emit values like the dumped yaml map`() {
+        val map = mapOf(
+                "title" to "some: title",
+                "version" to "1.0",
+                "number" to 200,
+                "flag" to true,
+                "empty" to null,
+                "blank" to "",
+                "include" to Include("some.raml"),
+                "list" to listOf("one", "null"),
+                "nested" to mapOf(404 to emptyMap<String, Any>()))
+
+        emitted { value(map) } `should equal` dumped(map)
+    }
+
+    private fun emitted(content: RamlEmitter.() -> Unit) =
+            StringWriter().also { RamlEmitter(it, options).document(content) }.toString()
+
+    private fun dumped(map: Map<*, *>) = Yaml(IncludeRepresenter(), options).dump(map)
+}
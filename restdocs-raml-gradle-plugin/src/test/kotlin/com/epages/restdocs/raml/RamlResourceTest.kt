@@ -111,4 +111,30 @@ class RamlResourceTest {
         val fromFragmentsFunctions = { RamlResource.fromFragments(fragments, NoOpJsonSchemaMerger) }
         fromFragmentsFunctions `should throw` IllegalArgumentException::class
     }
+
+    @Test
+    fun `should leave out private methods of public resource`() {
+        val fragments = listOf(
+                RamlFragment("cart-get", "/carts/{id}", Method(method = "get")),
+                RamlFragment("cart-delete", "/carts/{id}", Method(method = "delete", traits = listOf("private"))))
+        val resource = RamlResource.fromFragments(fragments, NoOpJsonSchemaMerger)
+
+        val publicResource = RamlResource.publicResource(resource, fragments, NoOpJsonSchemaMerger)
+
+        publicResource?.methods?.map { it.method } `should equal` listOf("get")
+        RamlResource.publicResource(resource, fragments.take(1), NoOpJsonSchemaMerger) `should be` resource
+        RamlResource.publicResource(resource, fragments.drop(1), NoOpJsonSchemaMerger).`should be null`()
+    }
+
+    @Test
+    fun `should merge public fragments again if method is partly private`() {
+        val fragments = listOf(
+                RamlFragment("cart-get-private", "/carts/{id}", Method(method = "get", traits = listOf("private"))),
+                RamlFragment("cart-get", "/carts/{id}", Method(method = "get", description = "public")))
+        val resource = RamlResource.fromFragments(fragments, NoOpJsonSchemaMerger)
+
+        val publicResource = RamlResource.publicResource(resource, fragments, NoOpJsonSchemaMerger)
+
+        publicResource?.methods `should equal` listOf(Method(method = "get", description = "public"))
+    }
 }
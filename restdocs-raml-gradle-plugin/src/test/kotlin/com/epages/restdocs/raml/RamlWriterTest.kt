@@ -1,9 +1,14 @@
 package com.epages.restdocs.raml
 
+import org.amshove.kluent.`should equal`
 import org.amshove.kluent.shouldContain
 import org.junit.Rule
 import org.junit.Test
 import org.junit.rules.TemporaryFolder
+import org.junit.Assume.assumeTrue
+import java.io.File
+import java.nio.file.FileSystems
+import java.nio.file.Files
 
 
 class RamlWriterTest {
@@ -22,4 +27,34 @@ class RamlWriterTest {
         }
 
     }
+
+    @Test
+    fun `should_write_groups_in_parallel_and_leave_no_temporary_files`() {
+        val directory = tempFolder.newFolder()
+        val groups = listOf("/carts", "/tags", "/products").map { path ->
+            ResourceGroup(path, listOf(RamlResource(path, listOf(Method("get", description = "List $path")))))
+        }
+
+        RamlWriter.writeApi(
+                fileFactory = { File(directory, it) },
+                api = RamlApi("title", null, RamlVersion.V_1_0, groups),
+                apiFileName = "api.raml",
+                groupFileNameProvider = { "${it.removePrefix("/")}.raml" },
+                mapper = ParallelMapper(3))
+
+        directory.list().sorted() `should equal` listOf("api.raml", "carts.raml", "products.raml", "tags.raml")
+        File(directory, "tags.raml").readLines().shouldContain("  description: List /tags")
+        File(directory, "api.raml").readLines().shouldContain("/tags: !include 'tags.raml'")
+    }
+
+    @Test
+    fun `should_write_file_with_default_permissions`() {
+        assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"))
+        val reference = tempFolder.newFile("reference.raml").apply { writeText("title: title") }
+        val file = File(tempFolder.root, "api.raml")
+
+        RamlWriter.writeFile(file, mapOf("title" to "title"))
+
+        Files.getPosixFilePermissions(file.toPath()) `should equal` Files.getPosixFilePermissions(reference.toPath())
+    }
 }
@@ -7,6 +7,7 @@ import org.amshove.kluent.`should exist`
 import org.gradle.testkit.runner.BuildResult
 import org.gradle.testkit.runner.GradleRunner
 import org.gradle.testkit.runner.TaskOutcome.SUCCESS
+import org.gradle.testkit.runner.TaskOutcome.UP_TO_DATE
 import org.junit.Before
 import org.junit.Rule
 import org.junit.Test
@@ -72,6 +73,67 @@ class RestdocsRamlTaskTest {
         thenRequestBodyJsonFileFoundInOutputDirectory()
     }
 
+    @Test
+    fun `should be up to date if snippets did not change`() {
+        givenBuildFileWithoutRamldocClosure()
+        givenSnippetFiles()
+        givenRequestBodyJsonFile()
+        whenPluginExecuted()
+
+        whenPluginExecuted()
+
+        result.task(":ramldoc")?.outcome `should equal` UP_TO_DATE
+
+        File(testProjectDir.root, "build/generated-snippets/carts-list/raml-resource.raml")
+                .apply { writeText(readText().replace("TODO - figure out how to set", "List carts")) }
+
+        whenPluginExecuted()
+
+        result.task(":ramldoc")?.outcome `should equal` SUCCESS
+    }
+
+    @Test
+    fun `should only write groups of changed fragments`() {
+        givenBuildFileWithoutRamldocClosure()
+        givenSnippetFiles()
+        givenRequestBodyJsonFile()
+        File(testProjectDir.newFolder("build", "generated-snippets", "tags-list"), "raml-resource.raml").writeText("""/tags:
+  get:
+    description: "List tags"
+""")
+        whenPluginExecuted()
+        val rootGroupFile = File(testProjectDir.root, "build/ramldoc/root.raml").apply { setLastModified(1_000_000_000L) }
+        val untouchedGroupFile = File(testProjectDir.root, "build/ramldoc/tags.raml").apply { setLastModified(1_000_000_000L) }
+
+        File(testProjectDir.root, "build/generated-snippets/carts-list/raml-resource.raml")
+                .apply { writeText(readText().replace("TODO - figure out how to set", "List carts")) }
+        File(testProjectDir.root, "build/generated-snippets/index-get").deleteRecursively()
+        whenPluginExecuted()
+
+        result.task(":ramldoc")?.outcome `should equal` SUCCESS
+        File(testProjectDir.root, "build/ramldoc/carts.raml").readText().contains("List carts").`should be true`()
+        rootGroupFile.exists() `should equal` false
+        untouchedGroupFile.lastModified() `should equal` 1_000_000_000L
+        thenApiRamlFileExistsWithHeaders() `should contain` "/carts: !include 'carts.raml'"
+        thenApiRamlFileExistsWithHeaders().none { it.startsWith("/:") }.`should be true`()
+    }
+
+    @Test
+    fun `should link body files and remove stale ones`() {
+        givenBuildFileWithoutRamldocClosure()
+        buildFile.appendText("\nramldoc { copyStrategy = 'hardLink' }\n")
+        givenSnippetFiles()
+        givenRequestBodyJsonFile()
+        File(testProjectDir.root, "build/ramldoc").mkdirs()
+        val staleFile = File(testProjectDir.root, "build/ramldoc/carts-delete-response.json").apply { writeText("{}") }
+
+        whenPluginExecuted()
+
+        result.task(":ramldoc")?.outcome `should equal` SUCCESS
+        thenRequestBodyJsonFileFoundInOutputDirectory()
+        staleFile.exists() `should equal` false
+    }
+
     private fun thenRequestBodyJsonFileFoundInOutputDirectory() {
         File(testProjectDir.root,"build/ramldoc/carts-create-request.json").`should exist`()
     }
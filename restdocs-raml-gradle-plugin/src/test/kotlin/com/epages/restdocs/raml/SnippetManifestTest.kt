@@ -0,0 +1,40 @@
+package com.epages.restdocs.raml
+
+import org.amshove.kluent.`should equal`
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.File
+
+class SnippetManifestTest {
+
+    @Rule @JvmField val tempFolder = TemporaryFolder()
+
+    @Test
+    fun `should sort snippet files by type`() {
+        givenFile("carts-create/raml-resource.raml", "/carts:")
+        givenFile("carts-create/carts-create-request.json", "{}")
+        givenFile("carts-create/carts-create-schema-request.json", "{}")
+        givenFile("carts-create/http-request.adoc", "POST /carts")
+        givenFile("carts-get/raml-resource.raml", "/carts/{cartId}:")
+        givenFile("carts-get/carts-get-response.json", "{\"id\": 1}")
+
+        val manifest = SnippetManifest.scan(tempFolder.root.toPath())
+
+        manifest.fragments.map { it.relativePath } `should equal` listOf("carts-create/raml-resource.raml", "carts-get/raml-resource.raml")
+        manifest.examples.map { it.relativePath } `should equal` listOf("carts-create/carts-create-request.json", "carts-get/carts-get-response.json")
+        manifest.schemas.map { it.relativePath } `should equal` listOf("carts-create/carts-create-schema-request.json")
+        manifest.examples.last().size `should equal` 9L
+    }
+
+    @Test
+    fun `should return empty manifest for missing directory`() {
+        val manifest = SnippetManifest.scan(File(tempFolder.root, "missing").toPath())
+
+        manifest.fragments `should equal` emptyList<SnippetManifest.SnippetFile>()
+    }
+
+    private fun givenFile(path: String, content: String) {
+        File(tempFolder.root, path).apply { parentFile.mkdirs() }.writeText(content)
+    }
+}
@@ -0,0 +1,46 @@
+package com.epages.restdocs.raml;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Optional storage mode for body and schema files - enable it with the system property {@value #ENABLED_PROPERTY}.
+ *
+ * The files are named after the SHA-256 hash of their content and are written once into the {@value #DIRECTORY} directory
+ * that all operations share. Operations with equal bodies or schemas reference the same file.
+ */
+final class ContentAddressedStorage {
+
+    static final String ENABLED_PROPERTY = "restdocs.raml.contentAddressedStorage";
+
+    static final String DIRECTORY = "raml-content";
+
+    private ContentAddressedStorage() {
+    }
+
+    static boolean isEnabled() {
+        return Boolean.getBoolean(ENABLED_PROPERTY);
+    }
+
+    static String fileName(String content, String suffix) {
+        return fileName(content.getBytes(UTF_8), suffix);
+    }
+
+    static String fileName(byte[] content, String suffix) {
+        StringBuilder fileName = new StringBuilder();
+        for (byte b : sha256().digest(content)) {
+            fileName.append(String.format("%02x", b));
+        }
+        return fileName.append(suffix).toString();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,12 +1,14 @@
 package com.epages.restdocs.raml;
 
+import static com.epages.restdocs.raml.ReflectionAccess.findMethod;
+import static com.epages.restdocs.raml.ReflectionAccess.invoke;
 import static java.util.Collections.emptyList;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.lang.invoke.MethodHandle;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import org.springframework.restdocs.headers.AbstractHeadersSnippet;
 import org.springframework.restdocs.headers.HeaderDescriptor;
@@ -17,51 +19,40 @@ import org.springframework.restdocs.payload.FieldDescriptor;
 import org.springframework.restdocs.request.AbstractParametersSnippet;
 import org.springframework.restdocs.request.ParameterDescriptor;
 
+@SuppressWarnings("unchecked")
 public class DescriptorExtractor {
 
-    public static List<FieldDescriptor> extract(AbstractFieldsSnippet snippet) {
-        try {
-            Method getFieldDescriptors = AbstractFieldsSnippet.class.getDeclaredMethod("getFieldDescriptors");
-            getFieldDescriptors.setAccessible(true);
-            return (List<FieldDescriptor>) getFieldDescriptors.invoke(snippet);
-        } catch (NoSuchMethodException | InvocationTargetException | IllegalAccessException e) {
-            e.printStackTrace();
-        }
+    private static final Optional<MethodHandle> GET_FIELD_DESCRIPTORS = findMethod(AbstractFieldsSnippet.class, "getFieldDescriptors");
+
+    private static final Optional<MethodHandle> GET_DESCRIPTORS_BY_REL = findMethod(LinksSnippet.class, "getDescriptorsByRel");
+
+    private static final Optional<MethodHandle> GET_HEADER_DESCRIPTORS = findMethod(AbstractHeadersSnippet.class, "getHeaderDescriptors");
 
-        return emptyList();
+    private static final Optional<MethodHandle> GET_PARAMETER_DESCRIPTORS = findMethod(AbstractParametersSnippet.class, "getParameterDescriptors");
+
+    public static List<FieldDescriptor> extract(AbstractFieldsSnippet snippet) {
+        return GET_FIELD_DESCRIPTORS
+                .map(getFieldDescriptors -> (List<FieldDescriptor>) invoke(getFieldDescriptors, snippet))
+                .orElse(emptyList());
     }
 
     public static List<LinkDescriptor> extract(LinksSnippet snippet) {
-        try {
-            Method getDescriptorsByRel = LinksSnippet.class.getDeclaredMethod("getDescriptorsByRel");
-            getDescriptorsByRel.setAccessible(true);
-            return new ArrayList<>(((Map<String, LinkDescriptor>) getDescriptorsByRel.invoke(snippet)).values());
-        } catch (NoSuchMethodException | InvocationTargetException | IllegalAccessException e) {
-            e.printStackTrace();
-        }
-        return emptyList();
+        return GET_DESCRIPTORS_BY_REL
+                .map(getDescriptorsByRel -> (Map<String, LinkDescriptor>) invoke(getDescriptorsByRel, snippet))
+                .<List<LinkDescriptor>>map(descriptorsByRel -> new ArrayList<>(descriptorsByRel.values()))
+                .orElse(emptyList());
     }
 
     public static List<HeaderDescriptor> extract(AbstractHeadersSnippet snippet) {
-        try {
-            Method getHeaderDescriptors = AbstractHeadersSnippet.class.getDeclaredMethod("getHeaderDescriptors");
-            getHeaderDescriptors.setAccessible(true);
-            return (List<HeaderDescriptor>) getHeaderDescriptors.invoke(snippet);
-        } catch (NoSuchMethodException | InvocationTargetException | IllegalAccessException e) {
-            e.printStackTrace();
-        }
-
-        return emptyList();
+        return GET_HEADER_DESCRIPTORS
+                .map(getHeaderDescriptors -> (List<HeaderDescriptor>) invoke(getHeaderDescriptors, snippet))
+                .orElse(emptyList());
     }
 
     public static List<ParameterDescriptor> extract(AbstractParametersSnippet snippet) {
-        try {
-            Method getParameterDescriptors = AbstractParametersSnippet.class.getDeclaredMethod("getParameterDescriptors");
-            getParameterDescriptors.setAccessible(true);
-            return new ArrayList<>(((Map<String, ParameterDescriptor>) getParameterDescriptors.invoke(snippet)).values());
-        } catch (NoSuchMethodException | InvocationTargetException | IllegalAccessException e) {
-            e.printStackTrace();
-        }
-        return emptyList();
+        return GET_PARAMETER_DESCRIPTORS
+                .map(getParameterDescriptors -> (Map<String, ParameterDescriptor>) invoke(getParameterDescriptors, snippet))
+                .<List<ParameterDescriptor>>map(descriptorsByName -> new ArrayList<>(descriptorsByName.values()))
+                .orElse(emptyList());
     }
 }
@@ -0,0 +1,101 @@
+package com.epages.restdocs.raml;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.restdocs.operation.Operation;
+
+/**
+ * The implementations behind the factory methods of {@link DocumentationPolicy}.
+ *
+ * Policies are usually created for every documented request - so the counters are kept here for the lifetime of the JVM,
+ * keyed by the policy and its parameters and the identifier of the operation.
+ */
+final class DocumentationPolicies {
+
+    private static final ConcurrentMap<String, AtomicInteger> COUNTS = new ConcurrentHashMap<>();
+
+    private static final Set<String> DOCUMENTED_STATUSES = ConcurrentHashMap.newKeySet();
+
+    private DocumentationPolicies() {
+    }
+
+    static void reset() {
+        COUNTS.clear();
+        DOCUMENTED_STATUSES.clear();
+    }
+
+    private static int count(String key) {
+        return COUNTS.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+    }
+
+    /**
+     * With more than one sample each sample gets its own snippets - the identifier followed by the number of the sample.
+     */
+    private static String sampleName(Operation operation, int n, int sample) {
+        return n == 1 ? operation.getName() : operation.getName() + "-" + sample;
+    }
+
+    /**
+     * Deciding counts the operation - so {@link #shouldDocument(Operation)} and {@link #snippetName(Operation)} must not both be called for an operation.
+     */
+    private abstract static class CountingPolicy implements DocumentationPolicy {
+
+        @Override
+        public boolean shouldDocument(Operation operation) {
+            return snippetName(operation) != null;
+        }
+
+        @Override
+        public abstract String snippetName(Operation operation);
+    }
+
+    static class FirstN extends CountingPolicy {
+
+        private final int n;
+
+        FirstN(int n) {
+            this.n = n;
+        }
+
+        @Override
+        public String snippetName(Operation operation) {
+            int count = count("firstN " + n + " " + operation.getName());
+            return count <= n ? sampleName(operation, n, count) : null;
+        }
+    }
+
+    /**
+     * A later operation replaces a random one of the n samples - so each operation has the same chance to be among the documented ones.
+     */
+    static class Reservoir extends CountingPolicy {
+
+        private final int n;
+
+        Reservoir(int n) {
+            this.n = n;
+        }
+
+        @Override
+        public String snippetName(Operation operation) {
+            int count = count("reservoir " + n + " " + operation.getName());
+            int sample = count <= n ? count : ThreadLocalRandom.current().nextInt(count) + 1;
+            return sample <= n ? sampleName(operation, n, sample) : null;
+        }
+    }
+
+    /**
+     * The snippets of each status go to their own directory - otherwise the last documented status would overwrite the others.
+     */
+    static class OnePerStatus extends CountingPolicy {
+
+        @Override
+        public String snippetName(Operation operation) {
+            String snippetName = operation.getName() + "-" + operation.getResponse().getStatus().value();
+            return DOCUMENTED_STATUSES.add(snippetName) ? snippetName : null;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.epages.restdocs.raml;
+
+import org.springframework.restdocs.operation.Operation;
+
+/**
+ * Decides whether an operation is documented - parameterized tests often document the same identifier many times.
+ *
+ * The policies count the operations per identifier for the lifetime of the JVM - equal policies created for every request share their counts.
+ * An operation that is not documented skips all restdocs-raml work.
+ */
+@FunctionalInterface
+public interface DocumentationPolicy {
+
+    boolean shouldDocument(Operation operation);
+
+    /**
+     * Decides whether the operation is documented and where - the identifier of the operation if {@link #shouldDocument(Operation)}.
+     *
+     * @return the name the restdocs-raml snippets of the operation are written under - null if it is not documented
+     */
+    default String snippetName(Operation operation) {
+        return shouldDocument(operation) ? operation.getName() : null;
+    }
+
+    /**
+     * Document every operation - the default.
+     */
+    static DocumentationPolicy all() {
+        return operation -> true;
+    }
+
+    /**
+     * Document the first n operations of an identifier.
+     * With n greater than one the snippets of each are written under the identifier followed by its number - like <code>orders-list-2</code>.
+     */
+    static DocumentationPolicy firstN(int n) {
+        return new DocumentationPolicies.FirstN(n);
+    }
+
+    /**
+     * Document the first n operations of an identifier and every later one with probability n / (number of operations so far) -
+     * it replaces a random one of the n samples. So each operation has the same chance to be among the documented ones.
+     * With n greater than one the snippets of each sample are written under the identifier followed by its number - like <code>orders-list-2</code>.
+     */
+    static DocumentationPolicy reservoir(int n) {
+        return new DocumentationPolicies.Reservoir(n);
+    }
+
+    /**
+     * Document the first operation of an identifier for each response status.
+     * The snippets are written under the identifier followed by the status - like <code>orders-list-404</code>.
+     */
+    static DocumentationPolicy onePerStatus() {
+        return new DocumentationPolicies.OnePerStatus();
+    }
+}
@@ -1,7 +1,6 @@
 package com.epages.restdocs.raml;
 
 import org.springframework.restdocs.operation.Operation;
-import org.springframework.util.StringUtils;
 
 public interface FileNameTrait {
 
@@ -19,20 +18,44 @@ public interface FileNameTrait {
         return operationName + RESPONSE_FILE_NAME_SUFFIX;
     }
 
+    default String getRequestFileName(Operation operation) {
+        return ContentAddressedStorage.isEnabled()
+                ? ContentAddressedStorage.fileName(OperationContent.of(operation).getRequestContent(), REQUEST_FILE_NAME_SUFFIX)
+                : getRequestFileName(operation.getName());
+    }
+
+    default String getResponseFileName(Operation operation) {
+        return ContentAddressedStorage.isEnabled()
+                ? ContentAddressedStorage.fileName(OperationContent.of(operation).getResponseContent(), RESPONSE_FILE_NAME_SUFFIX)
+                : getResponseFileName(operation.getName());
+    }
+
     default boolean shouldGenerateRequestSchemaFile(Operation operation, RamlResourceSnippetParameters parameters) {
-        return !StringUtils.isEmpty(operation.getRequest().getContentAsString()) && !parameters.getRequestFields().isEmpty();
+        return OperationContent.of(operation).hasRequestContent() && !parameters.getRequestFields().isEmpty();
     }
 
     default String getRequestSchemaFileName(String operationName) {
         return operationName + SCHEMA_PART + REQUEST_FILE_NAME_SUFFIX;
     }
 
+    default String getRequestSchemaFileName(Operation operation, String requestSchema) {
+        return ContentAddressedStorage.isEnabled()
+                ? ContentAddressedStorage.fileName(requestSchema, SCHEMA_PART + REQUEST_FILE_NAME_SUFFIX)
+                : getRequestSchemaFileName(operation.getName());
+    }
+
     default boolean shouldGenerateResponseSchemaFile(Operation operation, RamlResourceSnippetParameters parameters) {
-        return !StringUtils.isEmpty(operation.getResponse().getContentAsString())
+        return OperationContent.of(operation).hasResponseContent()
                 && !(parameters.getResponseFields().isEmpty() && parameters.getLinks().isEmpty());
     }
 
     default String getResponseSchemaFileName(String operationName) {
         return operationName + SCHEMA_PART + RESPONSE_FILE_NAME_SUFFIX;
     }
+
+    default String getResponseSchemaFileName(Operation operation, String responseSchema) {
+        return ContentAddressedStorage.isEnabled()
+                ? ContentAddressedStorage.fileName(responseSchema, SCHEMA_PART + RESPONSE_FILE_NAME_SUFFIX)
+                : getResponseSchemaFileName(operation.getName());
+    }
 }
@@ -0,0 +1,145 @@
+package com.epages.restdocs.raml;
+
+import static com.epages.restdocs.raml.ReflectionAccess.findMethod;
+import static com.epages.restdocs.raml.ReflectionAccess.invoke;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.restdocs.payload.FieldDescriptor;
+import org.springframework.restdocs.payload.FieldDoesNotExistException;
+import org.springframework.restdocs.payload.JsonFieldType;
+import org.springframework.restdocs.payload.SubsectionDescriptor;
+
+/**
+ * Validates documented fields against the payload that {@link OperationContent} parsed once for the operation and infers missing field types.
+ *
+ * These are the checks of {@link org.springframework.restdocs.payload.AbstractFieldsSnippet#createModel} -
+ * but spring-restdocs parses the payload again for every check and for every field.
+ * We use its field processor and type resolver on the shared payload instead.
+ *
+ * Only the successful case is handled here. If a field is missing, undocumented or has another type,
+ * or if the spring-restdocs internals are not available, the caller falls back to spring-restdocs to get its exceptions and messages.
+ */
+final class JsonPayloadFieldsValidator {
+
+    private static final Optional<Object> FIELD_PROCESSOR = newInstance("org.springframework.restdocs.payload.JsonFieldProcessor");
+
+    private static final Optional<Object> FIELD_TYPE_RESOLVER = newInstance("org.springframework.restdocs.payload.JsonFieldTypeResolver");
+
+    private static final Optional<MethodHandle> HAS_FIELD = FIELD_PROCESSOR
+            .flatMap(processor -> findMethod(processor.getClass(), "hasField", String.class, Object.class));
+
+    private static final Optional<MethodHandle> REMOVE = FIELD_PROCESSOR
+            .flatMap(processor -> findMethod(processor.getClass(), "remove", String.class, Object.class));
+
+    private static final Optional<MethodHandle> REMOVE_SUBSECTION = FIELD_PROCESSOR
+            .flatMap(processor -> findMethod(processor.getClass(), "removeSubsection", String.class, Object.class));
+
+    private static final Optional<MethodHandle> RESOLVE_FIELD_TYPE = FIELD_TYPE_RESOLVER
+            .flatMap(resolver -> findMethod(resolver.getClass(), "resolveFieldType", FieldDescriptor.class, Object.class));
+
+    private static final boolean AVAILABLE = HAS_FIELD.isPresent() && REMOVE.isPresent() && REMOVE_SUBSECTION.isPresent()
+            && RESOLVE_FIELD_TYPE.isPresent();
+
+    private JsonPayloadFieldsValidator() {
+    }
+
+    /**
+     * @return false if the fields could not be validated against the payload - the caller has to fall back to spring-restdocs then
+     */
+    static boolean validateFieldsAndInferTypeInformation(Object payload, List<FieldDescriptor> fieldDescriptors) {
+        if (payload == null || !AVAILABLE) {
+            return false;
+        }
+        try {
+            if (hasMissingFields(payload, fieldDescriptors) || hasUndocumentedContent(payload, fieldDescriptors)) {
+                return false;
+            }
+            Map<FieldDescriptor, Object> types = new IdentityHashMap<>();
+            for (FieldDescriptor fieldDescriptor : fieldDescriptors) {
+                if (!fieldDescriptor.isIgnored()) {
+                    Object type = determineFieldType(payload, fieldDescriptor);
+                    if (type == null) {
+                        return false;
+                    }
+                    types.put(fieldDescriptor, type);
+                }
+            }
+            types.forEach(FieldDescriptor::type);
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * spring-restdocs does not report a field nested beneath a missing optional field - we leave that case to spring-restdocs.
+     */
+    private static boolean hasMissingFields(Object payload, List<FieldDescriptor> fieldDescriptors) {
+        return fieldDescriptors.stream()
+                .anyMatch(fieldDescriptor -> !fieldDescriptor.isOptional()
+                        && !(Boolean) invoke(HAS_FIELD.get(), FIELD_PROCESSOR.get(), fieldDescriptor.getPath(), payload));
+    }
+
+    private static boolean hasUndocumentedContent(Object payload, List<FieldDescriptor> fieldDescriptors) {
+        Object undocumentedContent = copy(payload);
+        for (FieldDescriptor fieldDescriptor : fieldDescriptors) {
+            MethodHandle remove = fieldDescriptor instanceof SubsectionDescriptor ? REMOVE_SUBSECTION.get() : REMOVE.get();
+            invoke(remove, FIELD_PROCESSOR.get(), fieldDescriptor.getPath(), undocumentedContent);
+        }
+        return !(undocumentedContent instanceof Map && ((Map<?, ?>) undocumentedContent).isEmpty()
+                || undocumentedContent instanceof List && ((List<?>) undocumentedContent).isEmpty());
+    }
+
+    /**
+     * @return the type of the field or null if it does not match the documented type or cannot be determined
+     */
+    private static Object determineFieldType(Object payload, FieldDescriptor fieldDescriptor) {
+        Object documentedType = fieldDescriptor.getType();
+        if (documentedType != null && !(documentedType instanceof JsonFieldType)) {
+            return documentedType;
+        }
+        try {
+            Object actualType = invoke(RESOLVE_FIELD_TYPE.get(), FIELD_TYPE_RESOLVER.get(), fieldDescriptor, payload);
+            if (documentedType == null || documentedType == JsonFieldType.VARIES || documentedType == actualType) {
+                return documentedType == null ? actualType : documentedType;
+            }
+            return null;
+        } catch (FieldDoesNotExistException e) {
+            return documentedType;
+        }
+    }
+
+    /**
+     * The payload is shared - undocumented content is found by removing the documented fields from a copy.
+     */
+    private static Object copy(Object payload) {
+        if (payload instanceof Map) {
+            Map<Object, Object> copy = new LinkedHashMap<>();
+            ((Map<?, ?>) payload).forEach((key, value) -> copy.put(key, copy(value)));
+            return copy;
+        } else if (payload instanceof List) {
+            List<Object> copy = new ArrayList<>(((List<?>) payload).size());
+            ((List<?>) payload).forEach(value -> copy.add(copy(value)));
+            return copy;
+        }
+        return payload;
+    }
+
+    private static Optional<Object> newInstance(String className) {
+        try {
+            Constructor<?> constructor = Class.forName(className).getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return Optional.of(constructor.newInstance());
+        } catch (ReflectiveOperationException | SecurityException e) {
+            return Optional.empty();
+        }
+    }
+}
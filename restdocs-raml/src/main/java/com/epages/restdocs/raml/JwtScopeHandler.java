@@ -4,18 +4,53 @@ import static java.util.Collections.emptyList;
 import static java.util.stream.Collectors.toList;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import org.springframework.restdocs.operation.Operation;
 
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.epages.restdocs.raml.internal.BoundedCache;
+import com.epages.restdocs.raml.jsonschema.CacheStats;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import lombok.Value;
+
 public class JwtScopeHandler implements OperationHandler {
 
+    /**
+     * Comma separated names of the claims that carry the scopes - the first one found in the token is used.
+     */
+    static final String SCOPE_CLAIMS_PROPERTY = "restdocs.raml.jwtScopeClaims";
+
+    private static final String DEFAULT_SCOPE_CLAIM = "scope";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /**
+     * Most test suites only use a handful of tokens - so the scopes of a token are only extracted once.
+     */
+    private static final BoundedCache<TokenKey, Optional<String>> RENDERED_SCOPES_BY_TOKEN = new BoundedCache<>(1_000);
+
+    private final List<String> scopeClaims;
+
+    public JwtScopeHandler() {
+        this(System.getProperty(SCOPE_CLAIMS_PROPERTY, DEFAULT_SCOPE_CLAIM).split("\\s*,\\s*"));
+    }
+
+    /**
+     * @param scopeClaims names of the claims that carry the scopes, e.g. scope, scp or authorities
+     */
+    public JwtScopeHandler(String... scopeClaims) {
+        this.scopeClaims = Arrays.asList(scopeClaims);
+    }
+
     @Override
     public Map<String, Object> generateModel(Operation operation, RamlResourceSnippetParameters ramlResourceSnippetParameters) {
         return handleScopes(operation);
@@ -23,35 +58,84 @@ public class JwtScopeHandler implements OperationHandler {
 
     private Map<String, Object> handleScopes(Operation operation) {
         Map<String, Object> model = new HashMap<>();
-        if (operation.getRequest().getHeaders().getFirst("Authorization") != null) {
-            String jwt = operation.getRequest().getHeaders().getFirst("Authorization")
-                    .replace("Bearer ", "");
-            List<String> scopes = jwt2scopes(jwt).stream().map(s -> "\"" + s + "\"").collect(toList());
-            if (!scopes.isEmpty()) {
-                String renderedScopes = "[" + String.join(", ", scopes) + "]";
-                model.put("scopes", renderedScopes);
-            }
+        String authorization = operation.getRequest().getHeaders().getFirst("Authorization");
+        if (authorization != null) {
+            String jwt = authorization.replace("Bearer ", "");
+            RENDERED_SCOPES_BY_TOKEN.get(new TokenKey(scopeClaims, jwt), key -> renderScopes(jwt2scopes(key.getJwt(), scopeClaims)))
+                    .ifPresent(renderedScopes -> model.put("scopes", renderedScopes));
         }
         return model;
     }
 
-    @SuppressWarnings("unchecked")
-    private static List<String> jwt2scopes(final String jwt) {
+    /**
+     * @return hits and misses of the cache of extracted scopes
+     */
+    public static CacheStats scopeCacheStats() {
+        return RENDERED_SCOPES_BY_TOKEN.stats();
+    }
+
+    static void clearScopeCache() {
+        RENDERED_SCOPES_BY_TOKEN.clear();
+    }
+
+    private static Optional<String> renderScopes(List<String> scopes) {
+        if (scopes.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of("[" + String.join(", ", scopes.stream().map(s -> "\"" + s + "\"").collect(toList())) + "]");
+    }
+
+    private static List<String> jwt2scopes(final String jwt, List<String> scopeClaims) {
         String[] jwtParts = jwt.split("\\.");
         if (jwtParts.length >= 2) { // JWT = header, payload, signature; at least the first two should be there
-            String jwtPayload = jwtParts[1];
-            String decodedPayload = new String(Base64.getDecoder().decode(jwtPayload));
             try {
-                Map<String, Object> jwtMap =  new ObjectMapper().readValue(decodedPayload, new TypeReference<Map<String, Object>>(){});
-                Object scope = jwtMap.get("scope");
-                if (scope instanceof List) {
-                    return (List<String>) scope;
-                }
-            } catch (IOException e) {
+                return readScopes(Base64.getUrlDecoder().decode(jwtParts[1]), scopeClaims);
+            } catch (IOException | IllegalArgumentException e) {
                 //probably not JWT
             }
         }
 
         return emptyList();
     }
+
+    /**
+     * Streams over the top level claims of the payload and stops at the first scope claim.
+     * A claim is either a list of scopes or a single string of space separated scopes.
+     */
+    private static List<String> readScopes(byte[] payload, List<String> scopeClaims) throws IOException {
+        try (JsonParser parser = OBJECT_MAPPER.getFactory().createParser(payload)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return emptyList();
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String claim = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (!scopeClaims.contains(claim)) {
+                    parser.skipChildren();
+                } else if (value == JsonToken.START_ARRAY) {
+                    List<String> scopes = new ArrayList<>();
+                    for (JsonToken scope = parser.nextToken(); scope != JsonToken.END_ARRAY; scope = parser.nextToken()) {
+                        if (scope.isScalarValue()) {
+                            scopes.add(parser.getValueAsString());
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    return scopes;
+                } else if (value == JsonToken.VALUE_STRING) {
+                    String scopes = parser.getText().trim();
+                    return scopes.isEmpty() ? emptyList() : Arrays.asList(scopes.split("\\s+"));
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return emptyList();
+    }
+
+    @Value
+    private static class TokenKey {
+        List<String> scopeClaims;
+        String jwt;
+    }
 }
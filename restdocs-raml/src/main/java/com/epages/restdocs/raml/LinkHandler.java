@@ -1,13 +1,19 @@
 package com.epages.restdocs.raml;
 
 
+import static com.epages.restdocs.raml.ReflectionAccess.findMethod;
+import static com.epages.restdocs.raml.ReflectionAccess.invoke;
 import static java.util.Collections.emptyMap;
 
+import java.lang.invoke.MethodHandle;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import org.springframework.restdocs.hypermedia.HypermediaDocumentation;
+import org.springframework.restdocs.hypermedia.Link;
 import org.springframework.restdocs.hypermedia.LinkDescriptor;
+import org.springframework.restdocs.hypermedia.LinkExtractor;
 import org.springframework.restdocs.hypermedia.LinksSnippet;
 import org.springframework.restdocs.operation.Operation;
 
@@ -19,19 +25,35 @@ import org.springframework.restdocs.operation.Operation;
  */
 public class LinkHandler implements OperationHandler {
 
+    private static final LinkExtractor HAL_LINK_EXTRACTOR = HypermediaDocumentation.halLinks();
+
+    /**
+     * The hal link extractor parses the response itself - but it can also extract the links from an already parsed payload.
+     */
+    private static final Optional<MethodHandle> EXTRACT_LINKS_FROM_PAYLOAD = findMethod(HAL_LINK_EXTRACTOR.getClass(), "extractLinks", Map.class);
+
     @Override
     public Map<String, Object> generateModel(Operation operation, RamlResourceSnippetParameters parameters) {
         if (!parameters.getLinks().isEmpty()) {
-            new LinkSnippetWrapper(parameters.getLinks()).validateLinks(operation);
+            new LinkSnippetWrapper(linkExtractor(operation), parameters.getLinks()).validateLinks(operation);
         }
         return emptyMap();
     }
 
+    @SuppressWarnings("unchecked")
+    private static LinkExtractor linkExtractor(Operation operation) {
+        Object payload = OperationContent.of(operation).getResponsePayload();
+        if (payload instanceof Map && EXTRACT_LINKS_FROM_PAYLOAD.isPresent()) {
+            return response -> (Map<String, List<Link>>) invoke(EXTRACT_LINKS_FROM_PAYLOAD.get(), HAL_LINK_EXTRACTOR, payload);
+        }
+        return HAL_LINK_EXTRACTOR;
+    }
+
     static class LinkSnippetWrapper extends LinksSnippet {
 
-        LinkSnippetWrapper(List<LinkDescriptor> descriptors) {
-            //using ContentTypeLinkExtractor would be more flexible but we cannot access it here
-            super(HypermediaDocumentation.halLinks(), descriptors);
+        //using ContentTypeLinkExtractor would be more flexible but we cannot access it here
+        LinkSnippetWrapper(LinkExtractor linkExtractor, List<LinkDescriptor> descriptors) {
+            super(linkExtractor, descriptors);
         }
 
         /**
@@ -44,5 +66,3 @@ public class LinkHandler implements OperationHandler {
         }
     }
 }
-
-
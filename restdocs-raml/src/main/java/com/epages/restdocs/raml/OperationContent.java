@@ -0,0 +1,122 @@
+package com.epages.restdocs.raml;
+
+import java.io.IOException;
+
+import org.springframework.restdocs.operation.Operation;
+import org.springframework.restdocs.operation.OperationRequest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Lazily computed view on the request and response content of an {@link Operation}.
+ *
+ * {@link OperationRequest#getContent()} copies the content on every call and {@link OperationRequest#getContentAsString()} decodes it on every call.
+ * The view is stored as an operation attribute so that all handlers and storage steps of an operation share it
+ * and each body is copied, decoded and parsed at most once.
+ */
+final class OperationContent {
+
+    private static final String ATTRIBUTE_NAME = OperationContent.class.getName();
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final Object NO_JSON_PAYLOAD = new Object();
+
+    private final Operation operation;
+
+    private byte[] requestContent;
+
+    private String requestContentAsString;
+
+    private byte[] responseContent;
+
+    private String responseContentAsString;
+
+    private Object requestPayload;
+
+    private Object responsePayload;
+
+    private OperationContent(Operation operation) {
+        this.operation = operation;
+    }
+
+    static OperationContent of(Operation operation) {
+        Object content = operation.getAttributes().get(ATTRIBUTE_NAME);
+        if (content instanceof OperationContent && ((OperationContent) content).operation == operation) {
+            return (OperationContent) content;
+        }
+        OperationContent newContent = new OperationContent(operation);
+        operation.getAttributes().put(ATTRIBUTE_NAME, newContent);
+        return newContent;
+    }
+
+    boolean hasRequestContent() {
+        return getRequestContent().length > 0;
+    }
+
+    byte[] getRequestContent() {
+        if (requestContent == null) {
+            requestContent = operation.getRequest().getContent();
+        }
+        return requestContent;
+    }
+
+    String getRequestContentAsString() {
+        if (requestContentAsString == null) {
+            requestContentAsString = operation.getRequest().getContentAsString();
+        }
+        return requestContentAsString;
+    }
+
+    boolean hasResponseContent() {
+        return getResponseContent().length > 0;
+    }
+
+    byte[] getResponseContent() {
+        if (responseContent == null) {
+            responseContent = operation.getResponse().getContent();
+        }
+        return responseContent;
+    }
+
+    String getResponseContentAsString() {
+        if (responseContentAsString == null) {
+            responseContentAsString = operation.getResponse().getContentAsString();
+        }
+        return responseContentAsString;
+    }
+
+    /**
+     * @return the request body parsed into maps, lists and values - null if the body is not JSON
+     */
+    Object getRequestPayload() {
+        if (requestPayload == null) {
+            requestPayload = parse(getRequestContent());
+        }
+        return requestPayload == NO_JSON_PAYLOAD ? null : requestPayload;
+    }
+
+    /**
+     * @return the response body parsed into maps, lists and values - null if the body is not JSON
+     */
+    Object getResponsePayload() {
+        if (responsePayload == null) {
+            responsePayload = parse(getResponseContent());
+        }
+        return responsePayload == NO_JSON_PAYLOAD ? null : responsePayload;
+    }
+
+    /**
+     * The payload is shared by all handlers of an operation - it must not be modified.
+     */
+    private static Object parse(byte[] content) {
+        if (content.length == 0) {
+            return NO_JSON_PAYLOAD;
+        }
+        try {
+            return OBJECT_MAPPER.readValue(content, Object.class);
+        } catch (IOException e) {
+            return NO_JSON_PAYLOAD;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.epages.restdocs.raml;
+
+import org.springframework.restdocs.operation.Operation;
+
+import com.epages.restdocs.raml.jsonschema.JsonSchemaFromFieldDescriptorsGenerator;
+
+/**
+ * The json schemas of the request and response fields of an {@link Operation} - each is generated at most once.
+ *
+ * Like {@link OperationContent} the schemas are stored as an operation attribute, so the handlers naming the schema files
+ * and the snippet writing them share the schemas. They are generated lazily - after the handlers validated the fields and inferred their types.
+ */
+final class OperationSchemas {
+
+    private static final String ATTRIBUTE_NAME = OperationSchemas.class.getName();
+
+    private static final JsonSchemaFromFieldDescriptorsGenerator GENERATOR = new JsonSchemaFromFieldDescriptorsGenerator();
+
+    private final Operation operation;
+
+    private final RamlResourceSnippetParameters parameters;
+
+    private String requestSchema;
+
+    private String responseSchema;
+
+    private OperationSchemas(Operation operation, RamlResourceSnippetParameters parameters) {
+        this.operation = operation;
+        this.parameters = parameters;
+    }
+
+    static OperationSchemas of(Operation operation, RamlResourceSnippetParameters parameters) {
+        Object schemas = operation.getAttributes().get(ATTRIBUTE_NAME);
+        if (schemas instanceof OperationSchemas
+                && ((OperationSchemas) schemas).operation == operation
+                && ((OperationSchemas) schemas).parameters == parameters) {
+            return (OperationSchemas) schemas;
+        }
+        OperationSchemas newSchemas = new OperationSchemas(operation, parameters);
+        operation.getAttributes().put(ATTRIBUTE_NAME, newSchemas);
+        return newSchemas;
+    }
+
+    String getRequestSchema() {
+        if (requestSchema == null) {
+            requestSchema = GENERATOR.generateSchema(parameters.getRequestFields());
+        }
+        return requestSchema;
+    }
+
+    String getResponseSchema() {
+        if (responseSchema == null) {
+            responseSchema = GENERATOR.generateSchema(parameters.getResponseFieldsWithLinks());
+        }
+        return responseSchema;
+    }
+}
@@ -34,6 +34,16 @@ public class RamlDocumentation {
         return document(identifier, "", false, null, null, Function.identity(), snippets);
     }
 
+    /**
+     * Document the operations of the identifier that the documentation policy selects - see {@link DocumentationPolicy}.
+     * The other operations still run the snippets of Spring REST Docs.
+     */
+    public static RestDocumentationResultHandler documentWithPolicy(String identifier,
+                                                                    DocumentationPolicy documentationPolicy,
+                                                                    Snippet... snippets) {
+        return documentWithPolicy(identifier, "", false, null, null, Function.identity(), documentationPolicy, snippets);
+    }
+
     public static RestDocumentationResultHandler document(String identifier,
                                                           OperationRequestPreprocessor requestPreprocessor,
                                                           Snippet... snippets) {
@@ -90,8 +100,20 @@ public class RamlDocumentation {
                                                           OperationResponsePreprocessor responsePreprocessor,
                                                           Function<List<Snippet>, List<Snippet>> snippetFilter,
                                                           Snippet... snippets) {
+        return documentWithPolicy(identifier, description, privateResource, requestPreprocessor, responsePreprocessor, snippetFilter,
+                DocumentationPolicy.all(), snippets);
+    }
 
-        Snippet[] enhancedSnippets = enhanceSnippetsWithRaml(description, privateResource, snippetFilter, snippets);
+    public static RestDocumentationResultHandler documentWithPolicy(String identifier,
+                                                                    String description,
+                                                                    boolean privateResource,
+                                                                    OperationRequestPreprocessor requestPreprocessor,
+                                                                    OperationResponsePreprocessor responsePreprocessor,
+                                                                    Function<List<Snippet>, List<Snippet>> snippetFilter,
+                                                                    DocumentationPolicy documentationPolicy,
+                                                                    Snippet... snippets) {
+
+        Snippet[] enhancedSnippets = enhanceSnippetsWithRamlAndPolicy(description, privateResource, snippetFilter, documentationPolicy, snippets);
 
         if (requestPreprocessor != null && responsePreprocessor != null) {
             return MockMvcRestDocumentation.document(identifier, requestPreprocessor, responsePreprocessor, enhancedSnippets);
@@ -108,6 +130,17 @@ public class RamlDocumentation {
                                                        boolean privateResource,
                                                        Function<List<Snippet>, List<Snippet>> snippetFilter,
                                                        Snippet... snippets) {
+        return enhanceSnippetsWithRamlAndPolicy(description, privateResource, snippetFilter, DocumentationPolicy.all(), snippets);
+    }
+
+    /**
+     * The documentation policy only applies to the RamlResourceSnippet created here - a RamlResourceSnippet passed in carries its own parameters.
+     */
+    protected static Snippet[] enhanceSnippetsWithRamlAndPolicy(String description,
+                                                                boolean privateResource,
+                                                                Function<List<Snippet>, List<Snippet>> snippetFilter,
+                                                                DocumentationPolicy documentationPolicy,
+                                                                Snippet... snippets) {
 
         List<RequestFieldsSnippet> requestFieldsSnippets = new ArrayList<>();
         List<ResponseFieldsSnippet> responseFieldsSnippets = new ArrayList<>();
@@ -157,6 +190,7 @@ public class RamlDocumentation {
             RamlResourceSnippetParameters ramlParameters = RamlResourceSnippetParameters.builder()
                     .description(description)
                     .privateResource(privateResource)
+                    .documentationPolicy(documentationPolicy)
                     .requestFields(requestFieldsSnippets.stream().map(DescriptorExtractor::extract).flatMap(List::stream).toArray(FieldDescriptor[]::new))
                     .responseFields(responseFieldsSnippets.stream().map(DescriptorExtractor::extract).flatMap(List::stream).toArray(FieldDescriptor[]::new))
                     .links(linkSnippets.stream().map(DescriptorExtractor::extract).flatMap(List::stream).toArray(LinkDescriptor[]::new))
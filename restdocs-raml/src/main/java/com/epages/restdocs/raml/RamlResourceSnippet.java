@@ -2,47 +2,57 @@ package com.epages.restdocs.raml;
 
 import static com.epages.restdocs.raml.HeaderHandler.requestHeaderHandler;
 import static com.epages.restdocs.raml.HeaderHandler.responseHeaderHandler;
+import static com.epages.restdocs.raml.ReflectionAccess.findMethodPerClass;
+import static com.epages.restdocs.raml.ReflectionAccess.invoke;
 import static java.util.Collections.singletonList;
 import static org.springframework.restdocs.config.SnippetConfigurer.DEFAULT_SNIPPET_ENCODING;
 import static org.springframework.restdocs.generate.RestDocumentationGenerator.ATTRIBUTE_NAME_URL_TEMPLATE;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
 import java.io.UncheckedIOException;
 import java.io.Writer;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.nio.file.Files;
+import java.lang.invoke.MethodHandle;
+import java.nio.charset.Charset;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 import org.springframework.restdocs.RestDocumentationContext;
 import org.springframework.restdocs.operation.Operation;
+import org.springframework.restdocs.operation.StandardOperation;
+import org.springframework.restdocs.snippet.PlaceholderResolverFactory;
 import org.springframework.restdocs.snippet.RestDocumentationContextPlaceholderResolverFactory;
 import org.springframework.restdocs.snippet.StandardWriterResolver;
 import org.springframework.restdocs.snippet.TemplatedSnippet;
 import org.springframework.restdocs.snippet.WriterResolver;
-import org.springframework.restdocs.templates.StandardTemplateResourceResolver;
-import org.springframework.restdocs.templates.TemplateEngine;
 import org.springframework.restdocs.templates.TemplateFormat;
-import org.springframework.restdocs.templates.mustache.MustacheTemplateEngine;
+import org.springframework.util.PropertyPlaceholderHelper;
 import org.springframework.util.StringUtils;
 import org.springframework.web.util.UriComponentsBuilder;
 
-import com.epages.restdocs.raml.jsonschema.JsonSchemaFromFieldDescriptorsGenerator;
-
 public class RamlResourceSnippet extends TemplatedSnippet implements FileNameTrait {
 
     private static final String SNIPPET_NAME = "raml-resource";
 
+    private static final TemplateFormat TEMPLATE_FORMAT = new RamlTemplateFormat();
+
+    private static final PlaceholderResolverFactory PLACEHOLDER_RESOLVER_FACTORY = new RestDocumentationContextPlaceholderResolverFactory();
+
+    private static final PropertyPlaceholderHelper PLACEHOLDER_HELPER = new PropertyPlaceholderHelper("{", "}");
+
+    private static final WriterResolver WRITER_RESOLVER = new StandardWriterResolver(
+            PLACEHOLDER_RESOLVER_FACTORY, DEFAULT_SNIPPET_ENCODING, TEMPLATE_FORMAT);
+
+    private static final String IDENTIFIER_ATTRIBUTE = RamlResourceSnippet.class.getName() + ".identifier";
+
+    private static final ClassValue<Optional<MethodHandle>> GET_OUTPUT_DIRECTORY = findMethodPerClass("getOutputDirectory");
+
     private final RamlResourceSnippetParameters parameters;
 
     private final OperationHandlerChain handlerChain;
 
-    private final JsonSchemaFromFieldDescriptorsGenerator jsonSchemasGenerator = new JsonSchemaFromFieldDescriptorsGenerator();
-
     RamlResourceSnippet(RamlResourceSnippetParameters parameters) {
         super(SNIPPET_NAME, null);
         this.parameters = parameters;
@@ -63,7 +73,9 @@ public class RamlResourceSnippet extends TemplatedSnippet implements FileNameTra
     protected Map<String, Object> createModel(Operation operation) {
         Map<String, Object> model = new HashMap<>();
         model.put("method", operation.getRequest().getMethod().name().toLowerCase());
-        model.put("description", parameters.getDescription() == null ? operation.getName() : parameters.getDescription());
+        model.put("description", parameters.getDescription() == null
+                ? operation.getAttributes().getOrDefault(IDENTIFIER_ATTRIBUTE, operation.getName())
+                : parameters.getDescription());
         model.put("resource", getUriPath(operation));
         model.put("status", operation.getResponse().getStatus().value());
 
@@ -74,6 +86,12 @@ public class RamlResourceSnippet extends TemplatedSnippet implements FileNameTra
 
     @Override
     public void document(Operation operation) throws IOException {
+        String snippetName = parameters.getDocumentationPolicy().snippetName(operation);
+        if (snippetName == null) {
+            return;
+        }
+        operation = withName(operation, snippetName);
+
         documentSnippet(operation);
 
         storeRequestBody(operation);
@@ -85,67 +103,103 @@ public class RamlResourceSnippet extends TemplatedSnippet implements FileNameTra
         storeResponseJsonSchema(operation);
     }
 
+    /**
+     * The fragment goes where {@link StandardWriterResolver} would put it - but it is only written if it changed.
+     * Without an output directory the fragment is handed to the writer resolver which writes it to the console.
+     */
     private void documentSnippet(Operation operation) throws IOException {
+        RestDocumentationContext context = (RestDocumentationContext) operation.getAttributes().get(RestDocumentationContext.class.getName());
+        String fragment = TemplateCache.compileTemplate(TEMPLATE_FORMAT, SNIPPET_NAME).render(createModel(operation));
+        String directory = PLACEHOLDER_HELPER.replacePlaceholders(operation.getName(), PLACEHOLDER_RESOLVER_FACTORY.create(context));
+        File output = getOutputFile(context, directory, SNIPPET_NAME + "." + TEMPLATE_FORMAT.getFileExtension());
+        if (output != null) {
+            writeIfChanged(output, fragment.getBytes(Charset.forName(DEFAULT_SNIPPET_ENCODING)));
+        } else {
+            try (Writer writer = WRITER_RESOLVER.resolve(operation.getName(), SNIPPET_NAME, context)) {
+                writer.append(fragment);
+            }
+        }
+    }
 
-        WriterResolver writerResolver = new StandardWriterResolver(new RestDocumentationContextPlaceholderResolverFactory(), DEFAULT_SNIPPET_ENCODING, new RamlTemplateFormat());
-        try (Writer writer = writerResolver.resolve(operation.getName(), SNIPPET_NAME,
-                (RestDocumentationContext) operation.getAttributes().get(RestDocumentationContext.class.getName()))) {
-            Map<String, Object> model = createModel(operation);
-            TemplateEngine templateEngine = new MustacheTemplateEngine(new StandardTemplateResourceResolver(new RamlTemplateFormat()));
-            writer.append(templateEngine.compileTemplate(SNIPPET_NAME).render(model));
+    /**
+     * The snippets are written under the name the documentation policy picks - the description still defaults to the identifier.
+     */
+    private static Operation withName(Operation operation, String name) {
+        if (name.equals(operation.getName())) {
+            return operation;
         }
+        Map<String, Object> attributes = new HashMap<>(operation.getAttributes());
+        attributes.put(IDENTIFIER_ATTRIBUTE, operation.getName());
+        return new StandardOperation(name, operation.getRequest(), operation.getResponse(), attributes);
     }
 
     private void storeRequestJsonSchema(Operation operation) {
         if (shouldGenerateRequestSchemaFile(operation, parameters)) {
-            storeFile(operation, getRequestSchemaFileName(operation.getName()),
-                    jsonSchemasGenerator.generateSchema(parameters.getRequestFields()));
+            String requestSchema = OperationSchemas.of(operation, parameters).getRequestSchema();
+            storeFile(operation, getRequestSchemaFileName(operation, requestSchema), requestSchema);
         }
     }
 
     private void storeResponseJsonSchema(Operation operation) {
         if (shouldGenerateResponseSchemaFile(operation, parameters)) {
-            storeFile(operation, getResponseSchemaFileName(operation.getName()),
-                    jsonSchemasGenerator.generateSchema(parameters.getResponseFieldsWithLinks()));
+            String responseSchema = OperationSchemas.of(operation, parameters).getResponseSchema();
+            storeFile(operation, getResponseSchemaFileName(operation, responseSchema), responseSchema);
         }
     }
 
     private void storeRequestBody(Operation operation) {
-        if (!StringUtils.isEmpty(operation.getRequest().getContentAsString())) {
-            storeFile(operation, getRequestFileName(operation.getName()), operation.getRequest().getContentAsString());
+        OperationContent content = OperationContent.of(operation);
+        if (content.hasRequestContent()) {
+            storeFile(operation, getRequestFileName(operation), content.getRequestContent());
         }
     }
 
     private void storeResponseBody(Operation operation) {
-        if (!StringUtils.isEmpty(operation.getResponse().getContentAsString())) {
-            storeFile(operation, getResponseFileName(operation.getName()), operation.getResponse().getContentAsString());
+        OperationContent content = OperationContent.of(operation);
+        if (content.hasResponseContent()) {
+            storeFile(operation, getResponseFileName(operation), content.getResponseContent());
         }
     }
 
     private void storeFile(Operation operation, String filename, String content) {
+        storeFile(operation, filename, content.getBytes(Charset.forName(DEFAULT_SNIPPET_ENCODING)));
+    }
+
+    /**
+     * Write the content as is - request and response bodies keep the encoding they were sent with.
+     */
+    private void storeFile(Operation operation, String filename, byte[] content) {
         File output = getOutputFile(operation, filename);
-        try (Writer writer = new OutputStreamWriter(Files.newOutputStream(output.toPath()))) {
-            writer.append(content);
+        if (ContentAddressedStorage.isEnabled() && output.isFile() && output.length() == content.length) {
+            // the file is named after its content - so another operation has written it already
+            return;
+        }
+        writeIfChanged(output, content);
+    }
+
+    private static void writeIfChanged(File output, byte[] content) {
+        try {
+            SnippetFiles.writeIfChanged(output.toPath(), content);
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
     }
 
     private File getOutputFile(Operation operation, String filename) {
-        Object context = operation.getAttributes().get(RestDocumentationContext.class.getName());
-        try {
-            //use reflection here because of binary incompatibility between spring-restdocs 1 and 2
-            //RestDocumentationContext changed from a class to an interface
-            //if our code should work against both versions we need to avoid compiling against a version directly
-            //see https://github.com/ePages-de/restdocs-raml/issues/7
-            //we can remove the use of reflection when we drop support for spring-restdocs 1
-            Method getOutputDirectory = context.getClass().getDeclaredMethod("getOutputDirectory");
-            getOutputDirectory.setAccessible(true);
-            File outputFile = (File) getOutputDirectory.invoke(context);
-            return new File(outputFile, operation.getName() + "/" + filename);
-        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
-            return null;
-        }
+        String directory = ContentAddressedStorage.isEnabled() ? ContentAddressedStorage.DIRECTORY : operation.getName();
+        return getOutputFile(operation.getAttributes().get(RestDocumentationContext.class.getName()), directory, filename);
+    }
+
+    private static File getOutputFile(Object context, String directory, String filename) {
+        //use reflection here because of binary incompatibility between spring-restdocs 1 and 2
+        //RestDocumentationContext changed from a class to an interface
+        //if our code should work against both versions we need to avoid compiling against a version directly
+        //see https://github.com/ePages-de/restdocs-raml/issues/7
+        //we can remove the use of reflection when we drop support for spring-restdocs 1
+        return GET_OUTPUT_DIRECTORY.get(context.getClass())
+                .map(getOutputDirectory -> (File) invoke(getOutputDirectory, context))
+                .map(outputDirectory -> new File(outputDirectory, directory + "/" + filename))
+                .orElse(null);
     }
 
     private String getUriPath(Operation operation) {
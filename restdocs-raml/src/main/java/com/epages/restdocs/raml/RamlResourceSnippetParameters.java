@@ -1,9 +1,12 @@
 package com.epages.restdocs.raml;
 
+import static com.epages.restdocs.raml.ReflectionAccess.findMethod;
+import static com.epages.restdocs.raml.ReflectionAccess.invoke;
 import static java.util.Collections.emptyList;
 import static lombok.AccessLevel.PRIVATE;
 import static org.springframework.restdocs.payload.PayloadDocumentation.fieldWithPath;
 
+import java.lang.invoke.MethodHandle;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -18,7 +21,6 @@ import org.springframework.restdocs.payload.JsonFieldType;
 import org.springframework.restdocs.payload.PayloadDocumentation;
 import org.springframework.restdocs.request.ParameterDescriptor;
 import org.springframework.restdocs.snippet.Attributes.Attribute;
-import org.springframework.util.ReflectionUtils;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -29,6 +31,8 @@ import lombok.Getter;
 @Getter
 public class RamlResourceSnippetParameters {
 
+    private static final Optional<MethodHandle> SUBSECTION_WITH_PATH = findMethod(PayloadDocumentation.class, "subsectionWithPath", String.class);
+
     private final String description;
     private final boolean privateResource;
     private final List<FieldDescriptor> requestFields;
@@ -38,6 +42,7 @@ public class RamlResourceSnippetParameters {
     private final List<ParameterDescriptorWithRamlType> requestParameters;
     private final List<HeaderDescriptor> requestHeaders;
     private final List<HeaderDescriptor> responseHeaders;
+    private final DocumentationPolicy documentationPolicy;
 
     List<FieldDescriptor> getResponseFieldsWithLinks() {
         List<FieldDescriptor> combinedDescriptors = new ArrayList<>(getResponseFields());
@@ -77,8 +82,8 @@ public class RamlResourceSnippetParameters {
      */
     private static FieldDescriptor createLinkFieldDescriptor(String rel) {
         String path = "_links." + rel;
-        return (FieldDescriptor) Optional.ofNullable(ReflectionUtils.findMethod(PayloadDocumentation.class, "subsectionWithPath", String.class))
-                .map(m -> ReflectionUtils.invokeMethod(m, null, path))
+        return SUBSECTION_WITH_PATH
+                .map(subsectionWithPath -> (FieldDescriptor) invoke(subsectionWithPath, path))
                 .orElseGet(() -> fieldWithPath(path));
     }
 
@@ -91,6 +96,7 @@ public class RamlResourceSnippetParameters {
         private List<ParameterDescriptorWithRamlType> requestParameters = emptyList();
         private List<HeaderDescriptor> requestHeaders = emptyList();
         private List<HeaderDescriptor> responseHeaders = emptyList();
+        private DocumentationPolicy documentationPolicy = DocumentationPolicy.all();
 
         public RamlResourceSnippetParametersBuilder requestFields(FieldDescriptor... requestFields) {
             this.requestFields = Arrays.asList(requestFields);
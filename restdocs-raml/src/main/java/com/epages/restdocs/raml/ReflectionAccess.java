@@ -0,0 +1,88 @@
+package com.epages.restdocs.raml;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Optional;
+
+/**
+ * Resolves members we can only access via reflection once and keeps them as {@link MethodHandle}s.
+ *
+ * We need reflection to read descriptors from spring-restdocs snippets and to stay compatible with spring-restdocs 1.x and 2.x.
+ * Looking up a {@link Method} and making it accessible on every call is expensive - invoking a cached {@link MethodHandle} is not.
+ */
+final class ReflectionAccess {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private ReflectionAccess() {
+    }
+
+    /**
+     * Find a method declared on the given type.
+     * The returned handle takes the target (unless the method is static) and the arguments as objects and returns an object.
+     */
+    static Optional<MethodHandle> findMethod(Class<?> type, String name, Class<?>... parameterTypes) {
+        try {
+            Method method = type.getDeclaredMethod(name, parameterTypes);
+            method.setAccessible(true);
+            int arity = Modifier.isStatic(method.getModifiers()) ? parameterTypes.length : parameterTypes.length + 1;
+            return Optional.of(LOOKUP.unreflect(method).asType(MethodType.genericMethodType(arity)));
+        } catch (NoSuchMethodException | IllegalAccessException | SecurityException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Resolve a method without parameters that is declared on different classes - it is resolved once per class.
+     */
+    static ClassValue<Optional<MethodHandle>> findMethodPerClass(String name) {
+        return new ClassValue<Optional<MethodHandle>>() {
+            @Override
+            protected Optional<MethodHandle> computeValue(Class<?> type) {
+                return findMethod(type, name);
+            }
+        };
+    }
+
+    /**
+     * Invoke a handle obtained from this class that takes exactly one argument.
+     */
+    static Object invoke(MethodHandle methodHandle, Object argument) {
+        try {
+            return methodHandle.invokeExact(argument);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Invoke a handle obtained from this class that takes a target and one argument.
+     */
+    static Object invoke(MethodHandle methodHandle, Object target, Object argument) {
+        try {
+            return methodHandle.invokeExact(target, argument);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Invoke a handle obtained from this class that takes a target and two arguments.
+     */
+    static Object invoke(MethodHandle methodHandle, Object target, Object firstArgument, Object secondArgument) {
+        try {
+            return methodHandle.invokeExact(target, firstArgument, secondArgument);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
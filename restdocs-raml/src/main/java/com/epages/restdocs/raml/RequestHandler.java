@@ -11,23 +11,22 @@ import org.springframework.restdocs.operation.Operation;
 import org.springframework.restdocs.operation.OperationRequest;
 import org.springframework.restdocs.payload.FieldDescriptor;
 import org.springframework.restdocs.payload.RequestFieldsSnippet;
-import org.springframework.util.StringUtils;
 
 public class RequestHandler implements OperationHandler, FileNameTrait {
 
     public Map<String, Object> generateModel(Operation operation, RamlResourceSnippetParameters parameters) {
         final OperationRequest request = operation.getRequest();
 
-        if (!StringUtils.isEmpty(request.getContentAsString())) {
+        if (OperationContent.of(operation).hasRequestContent()) {
             Map<String, Object> model = new HashMap<>();
-            model.put("requestBodyFileName", getRequestFileName(operation.getName()));
+            model.put("requestBodyFileName", getRequestFileName(operation));
             model.put("requestBodyPresent", true);
             model.put("contentTypeRequest", getContentTypeOrDefault(request));
             if (!parameters.getRequestFields().isEmpty()) {
                 validateRequestFieldsAndInferTypeInformation(operation, parameters);
                 model.put("requestFieldsPresent", true);
                 if (shouldGenerateRequestSchemaFile(operation, parameters)) {
-                    model.put("requestSchemaFileName", getRequestSchemaFileName(operation.getName()));
+                    model.put("requestSchemaFileName", getRequestSchemaFileName(operation, OperationSchemas.of(operation, parameters).getRequestSchema()));
                 }
             }
             return model;
@@ -44,11 +43,15 @@ public class RequestHandler implements OperationHandler, FileNameTrait {
     }
 
     private void validateRequestFieldsAndInferTypeInformation(Operation operation, RamlResourceSnippetParameters parameters) {
-        new RequestFieldsSnippetWrapper(parameters.getRequestFields()).validateFieldsAndInferTypeInformation(operation);
+        List<FieldDescriptor> fieldDescriptors = parameters.getRequestFields();
+        if (!JsonPayloadFieldsValidator.validateFieldsAndInferTypeInformation(OperationContent.of(operation).getRequestPayload(), fieldDescriptors)) {
+            new RequestFieldsSnippetWrapper(fieldDescriptors).validateFieldsAndInferTypeInformation(operation);
+        }
     }
 
     /**
      * We need the wrapper to take advantage of the validation of fields and the inference of type information.
+     * It is only used if {@link JsonPayloadFieldsValidator} cannot validate the fields on the parsed payload - e.g. to report invalid fields.
      *
      * This is baked into {@link org.springframework.restdocs.payload.AbstractFieldsSnippet#createModel(Operation)} and is not accessible separately.
      */
@@ -61,5 +64,10 @@ public class RequestHandler implements OperationHandler, FileNameTrait {
         void validateFieldsAndInferTypeInformation(Operation operation) {
             super.createModel(operation);
         }
+
+        @Override
+        protected byte[] getContent(Operation operation) {
+            return OperationContent.of(operation).getRequestContent();
+        }
     }
 }
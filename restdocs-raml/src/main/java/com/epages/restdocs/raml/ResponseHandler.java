@@ -11,22 +11,21 @@ import org.springframework.restdocs.operation.Operation;
 import org.springframework.restdocs.operation.OperationResponse;
 import org.springframework.restdocs.payload.FieldDescriptor;
 import org.springframework.restdocs.payload.ResponseFieldsSnippet;
-import org.springframework.util.StringUtils;
 
 public class ResponseHandler implements OperationHandler, FileNameTrait {
 
     public Map<String, Object> generateModel(Operation operation, RamlResourceSnippetParameters parameters) {
         final OperationResponse response = operation.getResponse();
-        if (!StringUtils.isEmpty(response.getContentAsString())) {
+        if (OperationContent.of(operation).hasResponseContent()) {
             Map<String, Object> model = new HashMap<>();
-            model.put("responseBodyFileName", getResponseFileName(operation.getName()));
+            model.put("responseBodyFileName", getResponseFileName(operation));
             model.put("responseBodyPresent", true);
             model.put("contentTypeResponse", getContentTypeOrDefault(response));
             if (!parameters.getResponseFields().isEmpty()) {
                 validateResponseFieldsAndInferTypeInformation(operation, parameters);
                 model.put("responseFieldsPresent", true);
                 if (shouldGenerateResponseSchemaFile(operation, parameters)) {
-                    model.put("responseSchemaFileName", getResponseSchemaFileName(operation.getName()));
+                    model.put("responseSchemaFileName", getResponseSchemaFileName(operation, OperationSchemas.of(operation, parameters).getResponseSchema()));
                 }
             }
             return model;
@@ -43,11 +42,15 @@ public class ResponseHandler implements OperationHandler, FileNameTrait {
     }
 
     private void validateResponseFieldsAndInferTypeInformation(Operation operation, RamlResourceSnippetParameters parameters) {
-        new ResponseFieldsSnippetWrapper(parameters.getResponseFieldsWithLinks()).validateFieldsAndInferTypeInformation(operation);
+        List<FieldDescriptor> fieldDescriptors = parameters.getResponseFieldsWithLinks();
+        if (!JsonPayloadFieldsValidator.validateFieldsAndInferTypeInformation(OperationContent.of(operation).getResponsePayload(), fieldDescriptors)) {
+            new ResponseFieldsSnippetWrapper(fieldDescriptors).validateFieldsAndInferTypeInformation(operation);
+        }
     }
 
     /**
      * We need the wrapper to take advantage of the validation of fields and the inference of type information.
+     * It is only used if {@link JsonPayloadFieldsValidator} cannot validate the fields on the parsed payload - e.g. to report invalid fields.
      *
      * This is baked into {@link org.springframework.restdocs.payload.AbstractFieldsSnippet#createModel(Operation)} and is not accessible separately.
      */
@@ -60,5 +63,10 @@ public class ResponseHandler implements OperationHandler, FileNameTrait {
         void validateFieldsAndInferTypeInformation(Operation operation) {
             super.createModel(operation);
         }
+
+        @Override
+        protected byte[] getContent(Operation operation) {
+            return OperationContent.of(operation).getResponseContent();
+        }
     }
 }
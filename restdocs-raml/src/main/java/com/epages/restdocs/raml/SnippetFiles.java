@@ -0,0 +1,86 @@
+package com.epages.restdocs.raml;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+/**
+ * Writes snippet files only if their content changed.
+ *
+ * A test run that documents the same operations again leaves the files - and their modification times - untouched,
+ * so the build tools consuming the snippets see no changes.
+ */
+final class SnippetFiles {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private SnippetFiles() {
+    }
+
+    /**
+     * Files that changed are written to a temporary file next to the target which is then moved over the target -
+     * readers never see a partially written file.
+     * The temporary file is created like any other file - {@link Files#createTempFile} would make it readable by the owner only.
+     *
+     * @return true if the file was written, false if it already had the given content
+     */
+    static boolean writeIfChanged(Path file, byte[] content) throws IOException {
+        if (hasContent(file, content)) {
+            return false;
+        }
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporaryFile = directory.resolve("." + file.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporaryFile, CREATE_NEW, WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(content);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            try {
+                Files.move(temporaryFile, file, ATOMIC_MOVE, REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile, file, REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+        return true;
+    }
+
+    /**
+     * The size is checked first - only files of the same size are read and compared chunk by chunk.
+     */
+    static boolean hasContent(Path file, byte[] content) throws IOException {
+        if (!Files.isRegularFile(file) || Files.size(file) != content.length) {
+            return false;
+        }
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int position = 0;
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            for (int read = inputStream.read(buffer); read != -1; read = inputStream.read(buffer)) {
+                if (position + read > content.length) {
+                    return false;
+                }
+                for (int i = 0; i < read; i++) {
+                    if (buffer[i] != content[position + i]) {
+                        return false;
+                    }
+                }
+                position += read;
+            }
+        }
+        return position == content.length;
+    }
+}
@@ -0,0 +1,64 @@
+package com.epages.restdocs.raml;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.core.io.Resource;
+import org.springframework.restdocs.mustache.Mustache;
+import org.springframework.restdocs.templates.StandardTemplateResourceResolver;
+import org.springframework.restdocs.templates.Template;
+import org.springframework.restdocs.templates.TemplateFormat;
+import org.springframework.restdocs.templates.mustache.MustacheTemplate;
+
+import lombok.Value;
+
+/**
+ * Keeps compiled templates so that a template is parsed only once per JVM and not once per documented operation.
+ *
+ * Templates are keyed by template format and the resolved template resource.
+ * The resource is resolved on every lookup - so a custom template on the classpath still takes precedence over the default one.
+ */
+public final class TemplateCache {
+
+    private static final ConcurrentMap<TemplateKey, Template> TEMPLATES = new ConcurrentHashMap<>();
+
+    private static final Mustache.Compiler COMPILER = Mustache.compiler().escapeHTML(false);
+
+    private TemplateCache() {
+    }
+
+    static Template compileTemplate(TemplateFormat templateFormat, String name) {
+        Resource templateResource = new StandardTemplateResourceResolver(templateFormat).resolveTemplateResource(name);
+        if (templateResource == null) {
+            throw new IllegalStateException(String.format("Template named '%s' could not be resolved", name));
+        }
+        return TEMPLATES.computeIfAbsent(new TemplateKey(templateFormat.getId(), templateResource), TemplateCache::compile);
+    }
+
+    /**
+     * Drop all compiled templates - the next lookup compiles the template again.
+     * Use this if templates change on the classpath while the JVM is running.
+     */
+    public static void invalidate() {
+        TEMPLATES.clear();
+    }
+
+    private static Template compile(TemplateKey key) {
+        try (Reader reader = new InputStreamReader(key.getResource().getInputStream(), StandardCharsets.UTF_8)) {
+            return new MustacheTemplate(COMPILER.compile(reader));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Value
+    private static class TemplateKey {
+        String templateFormatId;
+        Resource resource;
+    }
+}
@@ -0,0 +1,53 @@
+package com.epages.restdocs.raml.internal;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import com.epages.restdocs.raml.jsonschema.CacheStats;
+
+/**
+ * A concurrent cache that stops adding entries once it is full - further values are computed on every lookup.
+ * Values must not depend on anything but the key.
+ *
+ * Internal to restdocs-raml - it is only public so that all packages of restdocs-raml can use it. It is not part of the API and may change at any time.
+ */
+public final class BoundedCache<K, V> {
+
+    private final int maxSize;
+
+    private final ConcurrentMap<K, V> values = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    public BoundedCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public V get(K key, Function<K, V> valueFunction) {
+        V value = values.get(key);
+        if (value != null) {
+            hits.increment();
+            return value;
+        }
+        misses.increment();
+        value = valueFunction.apply(key);
+        if (values.size() < maxSize) {
+            values.putIfAbsent(key, value);
+        }
+        return value;
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), values.size());
+    }
+
+    public void clear() {
+        values.clear();
+        hits.reset();
+        misses.reset();
+    }
+}
@@ -0,0 +1,13 @@
+package com.epages.restdocs.raml.jsonschema;
+
+import lombok.Value;
+
+/**
+ * A snapshot of the counters of one of the caches used during schema generation.
+ */
+@Value
+public class CacheStats {
+    long hits;
+    long misses;
+    int size;
+}
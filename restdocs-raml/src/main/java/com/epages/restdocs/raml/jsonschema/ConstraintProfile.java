@@ -0,0 +1,25 @@
+package com.epages.restdocs.raml.jsonschema;
+
+import java.math.BigDecimal;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Everything the bean validation constraints of a field contribute to its json schema.
+ *
+ * minSize and maxSize become minLength and maxLength for strings and minItems and maxItems for arrays.
+ */
+@Value
+@Builder
+class ConstraintProfile {
+    boolean required;
+    Integer minSize;
+    Integer maxSize;
+    BigDecimal minimum;
+    boolean exclusiveMinimum;
+    BigDecimal maximum;
+    boolean exclusiveMaximum;
+    String pattern;
+    String format;
+}
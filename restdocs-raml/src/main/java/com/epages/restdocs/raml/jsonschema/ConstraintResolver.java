@@ -2,11 +2,14 @@ package com.epages.restdocs.raml.jsonschema;
 
 import static java.util.stream.Collectors.toList;
 
+import java.math.BigDecimal;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.stream.Stream;
+import java.util.WeakHashMap;
 
 import org.springframework.restdocs.constraints.Constraint;
 import org.springframework.restdocs.payload.FieldDescriptor;
@@ -25,9 +28,35 @@ public class ConstraintResolver {
             "org.hibernate.validator.constraints.NotBlank"
     ));
 
+    //since validation-api 2.0 Email moved to javax.validation - we support both
+    private static final Set<String> EMAIL_CONSTRAINTS = new HashSet<>(Arrays.asList(
+            "javax.validation.constraints.Email",
+            "org.hibernate.validator.constraints.Email"
+    ));
+
     private static final Set<String> REQUIRED_CONSTRAINTS = new HashSet<>();
 
-    private static final String LENGTH_CONSTRAINT = "org.hibernate.validator.constraints.Length";
+    private static final Set<String> SIZE_CONSTRAINTS = new HashSet<>(Arrays.asList(
+            "org.hibernate.validator.constraints.Length",
+            "javax.validation.constraints.Size"
+    ));
+
+    private static final String MIN_CONSTRAINT = "javax.validation.constraints.Min";
+
+    private static final String MAX_CONSTRAINT = "javax.validation.constraints.Max";
+
+    private static final String DECIMAL_MIN_CONSTRAINT = "javax.validation.constraints.DecimalMin";
+
+    private static final String DECIMAL_MAX_CONSTRAINT = "javax.validation.constraints.DecimalMax";
+
+    private static final String PATTERN_CONSTRAINT = "javax.validation.constraints.Pattern";
+
+    /**
+     * The profile of a descriptor is kept together with the constraint lists it was resolved from -
+     * attributes added to the descriptor later are noticed and resolved again.
+     * Keys are weak so that descriptors of finished tests can be collected.
+     */
+    private static final Map<FieldDescriptor, ResolvedProfile> PROFILES = Collections.synchronizedMap(new WeakHashMap<>());
 
     static {
         REQUIRED_CONSTRAINTS.add("javax.validation.constraints.NotNull");
@@ -35,36 +64,144 @@ public class ConstraintResolver {
         REQUIRED_CONSTRAINTS.addAll(NOT_BLANK_CONSTRAINTS);
     }
 
-    static Integer minLengthString(FieldDescriptor fieldDescriptor) {
-        return findConstraints(fieldDescriptor).stream().
-                filter(constraint -> NOT_EMPTY_CONSTRAINTS.contains(constraint.getName())
-                        || NOT_BLANK_CONSTRAINTS.contains(constraint.getName())
-                        || LENGTH_CONSTRAINT.equals(constraint.getName()))
-                .findFirst()
-                .map(constraint -> LENGTH_CONSTRAINT.equals(constraint.getName()) ? (int) constraint.getConfiguration().get("min") : 1)
-                .orElse(null);
-    }
-
-    static Integer maxLengthString(FieldDescriptor fieldDescriptor) {
-        return findConstraints(fieldDescriptor).stream().
-                filter(constraint -> LENGTH_CONSTRAINT.equals(constraint.getName()))
-                .findFirst()
-                .map(constraint -> (int) constraint.getConfiguration().get("max"))
-                .orElse(null);
+    static ConstraintProfile profile(FieldDescriptor fieldDescriptor) {
+        List<List<Constraint>> constraintLists = findConstraintLists(fieldDescriptor);
+        ResolvedProfile resolved = PROFILES.get(fieldDescriptor);
+        if (resolved == null || !resolved.isResolvedFrom(constraintLists)) {
+            resolved = new ResolvedProfile(constraintLists, resolveProfile(constraintLists.stream().flatMap(List::stream).collect(toList())));
+            PROFILES.put(fieldDescriptor, resolved);
+        }
+        return resolved.profile;
     }
 
-    static boolean isRequired(FieldDescriptor fieldDescriptor) {
-        return findConstraints(fieldDescriptor).stream()
-                .anyMatch(constraint -> REQUIRED_CONSTRAINTS.contains(constraint.getName()));
+    static List<Constraint> findConstraints(FieldDescriptor fieldDescriptor) {
+        return findConstraintLists(fieldDescriptor).stream().flatMap(List::stream).collect(toList());
     }
 
     @SuppressWarnings("unchecked")
-    private static List<Constraint> findConstraints(FieldDescriptor fieldDescriptor) {
+    private static List<List<Constraint>> findConstraintLists(FieldDescriptor fieldDescriptor) {
         return fieldDescriptor.getAttributes().values().stream()
                 .filter(value -> value instanceof List)
-                .map(value -> (List) value)
+                .map(value -> (List<Constraint>) value)
                 .filter(list -> !list.isEmpty() && list.get(0) instanceof Constraint)
-                .flatMap(list -> (Stream<Constraint>) list.stream())
                 .collect(toList());
     }
+
+    /**
+     * Reads all constraints in one pass. If several constraints restrict the same bound the strictest one wins.
+     */
+    private static ConstraintProfile resolveProfile(List<Constraint> constraints) {
+        ConstraintProfile.ConstraintProfileBuilder profile = ConstraintProfile.builder();
+        boolean required = false;
+        Integer minSize = null;
+        Integer maxSize = null;
+        Bound minimum = null;
+        Bound maximum = null;
+        String pattern = null;
+        String format = null;
+        for (Constraint constraint : constraints) {
+            String name = constraint.getName();
+            Map<String, Object> configuration = constraint.getConfiguration();
+            required |= REQUIRED_CONSTRAINTS.contains(name);
+            if (NOT_EMPTY_CONSTRAINTS.contains(name) || NOT_BLANK_CONSTRAINTS.contains(name)) {
+                minSize = greater(minSize, 1);
+            } else if (SIZE_CONSTRAINTS.contains(name)) {
+                minSize = greater(minSize, intValue(configuration.get("min")));
+                maxSize = lower(maxSize, intValue(configuration.get("max")));
+            } else if (MIN_CONSTRAINT.equals(name)) {
+                minimum = Bound.stricterMinimum(minimum, Bound.of(configuration.get("value"), true));
+            } else if (DECIMAL_MIN_CONSTRAINT.equals(name)) {
+                minimum = Bound.stricterMinimum(minimum, Bound.of(configuration.get("value"), configuration.get("inclusive")));
+            } else if (MAX_CONSTRAINT.equals(name)) {
+                maximum = Bound.stricterMaximum(maximum, Bound.of(configuration.get("value"), true));
+            } else if (DECIMAL_MAX_CONSTRAINT.equals(name)) {
+                maximum = Bound.stricterMaximum(maximum, Bound.of(configuration.get("value"), configuration.get("inclusive")));
+            } else if (PATTERN_CONSTRAINT.equals(name) && pattern == null) {
+                // a json schema only takes a single pattern
+                pattern = (String) configuration.get("regexp");
+            } else if (EMAIL_CONSTRAINTS.contains(name)) {
+                format = "email";
+            }
+        }
+        profile.required(required)
+                .minSize(minSize)
+                .maxSize(maxSize)
+                .pattern(pattern)
+                .format(format);
+        if (minimum != null) {
+            profile.minimum(minimum.value).exclusiveMinimum(!minimum.inclusive);
+        }
+        if (maximum != null) {
+            profile.maximum(maximum.value).exclusiveMaximum(!maximum.inclusive);
+        }
+        return profile.build();
+    }
+
+    private static Integer intValue(Object value) {
+        return value == null ? null : ((Number) value).intValue();
+    }
+
+    private static Integer greater(Integer current, Integer value) {
+        return current == null || value != null && value > current ? value : current;
+    }
+
+    private static Integer lower(Integer current, Integer value) {
+        return current == null || value != null && value < current ? value : current;
+    }
+
+    private static class ResolvedProfile {
+        private final List<List<Constraint>> constraintLists;
+        private final int[] sizes;
+        private final ConstraintProfile profile;
+
+        private ResolvedProfile(List<List<Constraint>> constraintLists, ConstraintProfile profile) {
+            this.constraintLists = constraintLists;
+            this.sizes = constraintLists.stream().mapToInt(List::size).toArray();
+            this.profile = profile;
+        }
+
+        /**
+         * Constraint has no equals - the lists are compared by identity and size.
+         */
+        boolean isResolvedFrom(List<List<Constraint>> currentConstraintLists) {
+            if (currentConstraintLists.size() != constraintLists.size()) {
+                return false;
+            }
+            for (int i = 0; i < sizes.length; i++) {
+                if (currentConstraintLists.get(i) != constraintLists.get(i) || currentConstraintLists.get(i).size() != sizes[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static class Bound {
+        private final BigDecimal value;
+        private final boolean inclusive;
+
+        private Bound(BigDecimal value, boolean inclusive) {
+            this.value = value;
+            this.inclusive = inclusive;
+        }
+
+        /**
+         * Min and Max carry a long value, DecimalMin and DecimalMax a string and an optional inclusive flag
+         */
+        static Bound of(Object value, Object inclusive) {
+            return new Bound(new BigDecimal(value.toString()), inclusive == null || (Boolean) inclusive);
+        }
+
+        static Bound stricterMinimum(Bound current, Bound bound) {
+            return current == null || isStricter(bound.value.compareTo(current.value), bound, current) ? bound : current;
+        }
+
+        static Bound stricterMaximum(Bound current, Bound bound) {
+            return current == null || isStricter(current.value.compareTo(bound.value), bound, current) ? bound : current;
+        }
+
+        private static boolean isStricter(int comparison, Bound bound, Bound current) {
+            return comparison > 0 || comparison == 0 && current.inclusive && !bound.inclusive;
+        }
+    }
 }
@@ -0,0 +1,80 @@
+package com.epages.restdocs.raml.jsonschema;
+
+import static com.epages.restdocs.raml.jsonschema.ConstraintResolver.profile;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.restdocs.payload.FieldDescriptor;
+
+/**
+ * A content hash over everything a generated schema depends on - paths, types, optional and ignored flags, descriptions and constraints.
+ * Field descriptors with the same fingerprint result in the same schema.
+ */
+final class FieldDescriptorsFingerprint {
+
+    private final MessageDigest digest = sha256();
+
+    private FieldDescriptorsFingerprint() {
+    }
+
+    static String of(List<FieldDescriptor> fieldDescriptors, String title, boolean prettyPrint) {
+        FieldDescriptorsFingerprint fingerprint = new FieldDescriptorsFingerprint()
+                .add(title)
+                .add(prettyPrint);
+        for (FieldDescriptor fieldDescriptor : fieldDescriptors) {
+            fingerprint.add(fieldDescriptor);
+        }
+        return fingerprint.toHexString();
+    }
+
+    private FieldDescriptorsFingerprint add(FieldDescriptor fieldDescriptor) {
+        add(fieldDescriptor.getPath())
+                .add(fieldDescriptor.getType())
+                .add(fieldDescriptor.isOptional())
+                .add(fieldDescriptor.isIgnored())
+                .add(fieldDescriptor.getDescription());
+        // the profile holds everything the constraints contribute to the schema
+        return add(profile(fieldDescriptor));
+    }
+
+    /**
+     * Every value is prefixed with its length - so adjacent values cannot be confused.
+     */
+    private FieldDescriptorsFingerprint add(Object value) {
+        if (value == null) {
+            updateInt(-1);
+            return this;
+        }
+        byte[] bytes = (value instanceof Object[] ? Arrays.deepToString((Object[]) value) : value.toString()).getBytes(UTF_8);
+        updateInt(bytes.length);
+        digest.update(bytes);
+        return this;
+    }
+
+    private void updateInt(int value) {
+        digest.update((byte) (value >>> 24));
+        digest.update((byte) (value >>> 16));
+        digest.update((byte) (value >>> 8));
+        digest.update((byte) value);
+    }
+
+    private String toHexString() {
+        StringBuilder hexString = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hexString.append(String.format("%02x", b));
+        }
+        return hexString.toString();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,16 +1,21 @@
 package com.epages.restdocs.raml.jsonschema;
 
+import static java.util.Collections.unmodifiableList;
+
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.springframework.restdocs.payload.FieldDescriptor;
 
+import com.epages.restdocs.raml.internal.BoundedCache;
+
 final class JsonFieldPath {
 
-	private static final Pattern BRACKETS_AND_ARRAY_PATTERN = Pattern
-            .compile("\\[\'(.+?)\'\\]|\\[([0-9]+|\\*){0,1}\\]");
+	/**
+	 * The same field descriptors are usually documented by many operations - so the segments are parsed once per path.
+	 */
+	private static final BoundedCache<String, List<String>> SEGMENTS_BY_PATH = new BoundedCache<>(10_000);
 
 	private static final Pattern ARRAY_INDEX_PATTERN = Pattern
 			.compile("\\[([0-9]+|\\*){0,1}\\]");
@@ -29,6 +34,10 @@ final class JsonFieldPath {
 		return fieldDescriptor;
 	}
 
+	List<String> getSegments() {
+		return segments;
+	}
+
 	List<String> remainingSegments(List<String> traversedSegments) {
 		List<String> result = new ArrayList<>();
 		for (int i = 0; i <= segments.size(); i++) {
@@ -45,47 +54,79 @@ final class JsonFieldPath {
 	}
 
 	static JsonFieldPath compile(FieldDescriptor descriptor) {
-		List<String> segments = extractSegments(descriptor.getPath());
+		List<String> segments = SEGMENTS_BY_PATH.get(descriptor.getPath(), path -> unmodifiableList(extractSegments(path)));
 		return new JsonFieldPath(segments, descriptor);
 	}
 
+	static CacheStats cacheStats() {
+		return SEGMENTS_BY_PATH.stats();
+	}
+
+	static void clearCache() {
+		SEGMENTS_BY_PATH.clear();
+	}
+
 	static boolean isArraySegment(String segment) {
 		return ARRAY_INDEX_PATTERN.matcher(segment).find();
 	}
 
+	/**
+	 * Splits the path into segments - dot separated names, bracket notation like {@code ['name']}
+	 * and array segments like {@code []}, {@code [0]} or {@code [*]}.
+	 */
 	private static List<String> extractSegments(String path) {
-		Matcher matcher = BRACKETS_AND_ARRAY_PATTERN.matcher(path);
-
-		int previous = 0;
-
 		List<String> segments = new ArrayList<>();
-		while (matcher.find()) {
-			if (previous != matcher.start()) {
-				segments.addAll(extractDotSeparatedSegments(path.substring(previous, matcher.start())));
+		int previous = 0;
+		int index = 0;
+		while (index < path.length()) {
+			int end = path.charAt(index) == '[' ? endOfBrackets(path, index) : -1;
+			if (end < 0) {
+				index++;
+				continue;
 			}
-			if (matcher.group(1) != null) {
-				segments.add(matcher.group(1));
+			addDotSeparatedSegments(path, previous, index, segments);
+			if (path.charAt(index + 1) == '\'') {
+				segments.add(path.substring(index + 2, end - 2));
 			}
 			else {
-				segments.add(matcher.group());
+				segments.add(path.substring(index, end));
 			}
-			previous = matcher.end(0);
+			previous = end;
+			index = end;
 		}
+		addDotSeparatedSegments(path, previous, path.length(), segments);
+		return segments;
+	}
 
-		if (previous < path.length()) {
-			segments.addAll(extractDotSeparatedSegments(path.substring(previous)));
+	/**
+	 * @return the index after the brackets starting at {@code start} - or -1 if there is no {@code ['name']} or array segment
+	 */
+	private static int endOfBrackets(String path, int start) {
+		int index = start + 1;
+		if (index < path.length() && path.charAt(index) == '\'') {
+			int end = path.indexOf("']", index + 2);
+			return end < 0 ? -1 : end + 2;
 		}
-
-		return segments;
+		if (index < path.length() && path.charAt(index) == '*') {
+			index++;
+		}
+		else {
+			while (index < path.length() && path.charAt(index) >= '0' && path.charAt(index) <= '9') {
+				index++;
+			}
+		}
+		return index < path.length() && path.charAt(index) == ']' ? index + 1 : -1;
 	}
 
-	private static List<String> extractDotSeparatedSegments(String path) {
-		List<String> segments = new ArrayList<>();
-		for (String segment : path.split("\\.")) {
-			if (segment.length() > 0) {
-				segments.add(segment);
+	private static void addDotSeparatedSegments(String path, int start, int end, List<String> segments) {
+		int segmentStart = start;
+		for (int index = start; index <= end; index++) {
+			if (index == end || path.charAt(index) == '.') {
+				if (index > segmentStart) {
+					segments.add(path.substring(segmentStart, index));
+				}
+				segmentStart = index + 1;
 			}
 		}
-		return segments;
 	}
-}
\ No newline at end of file
+}
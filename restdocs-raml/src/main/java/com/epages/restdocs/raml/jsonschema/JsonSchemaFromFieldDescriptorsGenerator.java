@@ -1,51 +1,91 @@
 package com.epages.restdocs.raml.jsonschema;
 
-import static com.epages.restdocs.raml.jsonschema.ConstraintResolver.isRequired;
-import static com.epages.restdocs.raml.jsonschema.ConstraintResolver.maxLengthString;
-import static com.epages.restdocs.raml.jsonschema.ConstraintResolver.minLengthString;
+import static com.epages.restdocs.raml.jsonschema.ConstraintResolver.profile;
 import static com.epages.restdocs.raml.jsonschema.JsonFieldPath.isArraySegment;
-import static java.util.Collections.emptyList;
-import static java.util.stream.Collectors.groupingBy;
+import static java.util.Comparator.comparingInt;
 import static java.util.stream.Collectors.toList;
 
 import java.io.IOException;
 import java.io.StringWriter;
 import java.io.UncheckedIOException;
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Predicate;
+import java.util.Optional;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-import org.everit.json.schema.ArraySchema;
-import org.everit.json.schema.BooleanSchema;
-import org.everit.json.schema.NullSchema;
-import org.everit.json.schema.NumberSchema;
-import org.everit.json.schema.ObjectSchema;
-import org.everit.json.schema.Schema;
-import org.everit.json.schema.StringSchema;
-import org.everit.json.schema.internal.JSONPrinter;
-import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.restdocs.payload.FieldDescriptor;
 import org.springframework.restdocs.payload.JsonFieldType;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.epages.restdocs.raml.internal.BoundedCache;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 
 public class JsonSchemaFromFieldDescriptorsGenerator {
 
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * Many operations document the same fields - their schema is rendered once and looked up by fingerprint afterwards.
+     */
+    private static final BoundedCache<String, String> SCHEMAS_BY_FINGERPRINT = new BoundedCache<>(1_000);
+
+    private final boolean prettyPrint;
+
+    public JsonSchemaFromFieldDescriptorsGenerator() {
+        this(true);
+    }
+
+    /**
+     * @param prettyPrint false to emit schemas without any whitespace
+     */
+    public JsonSchemaFromFieldDescriptorsGenerator(boolean prettyPrint) {
+        this.prettyPrint = prettyPrint;
+    }
 
     public String generateSchema(List<FieldDescriptor> fieldDescriptors) {
         return generateSchema(fieldDescriptors, null);
     }
 
     public String generateSchema(List<FieldDescriptor> fieldDescriptors, String title) {
+        return SCHEMAS_BY_FINGERPRINT.get(FieldDescriptorsFingerprint.of(fieldDescriptors, title, prettyPrint),
+                fingerprint -> renderSchema(fieldDescriptors, title));
+    }
+
+    /**
+     * @return hits and misses of the schema cache shared by all generators
+     */
+    public static CacheStats schemaCacheStats() {
+        return SCHEMAS_BY_FINGERPRINT.stats();
+    }
+
+    static void clearSchemaCache() {
+        SCHEMAS_BY_FINGERPRINT.clear();
+    }
+
+    /**
+     * Renders the schema without looking at the cache - package private so the benchmarks can measure rendering alone.
+     */
+    String renderSchema(List<FieldDescriptor> fieldDescriptors, String title) {
         List<JsonFieldPath> jsonFieldPaths = distinct(fieldDescriptors).stream()
                 .map(JsonFieldPath::compile)
                 .collect(toList());
 
-        Schema schema = traverse(emptyList(), jsonFieldPaths, (ObjectSchema.Builder) ObjectSchema.builder().title(title));
+        PathNode root = PathNode.of(jsonFieldPaths);
 
-        return toFormattedString(unWrapRootArray(jsonFieldPaths, schema));
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+            if (prettyPrint) {
+                generator.useDefaultPrettyPrinter();
+            }
+            writeRootSchema(generator, root, title);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return writer.toString();
     }
 
     /**
@@ -84,123 +124,221 @@ public class JsonSchemaFromFieldDescriptorsGenerator {
     }
 
 
-    private Schema unWrapRootArray(List<JsonFieldPath> jsonFieldPaths, Schema schema) {
-        if (schema instanceof ObjectSchema) {
-            ObjectSchema objectSchema = (ObjectSchema) schema;
-            final Map<String, List<JsonFieldPath>> groups = groupFieldsByFirstRemainingPathSegment(emptyList(), jsonFieldPaths);
-            if (groups.keySet().size() ==  1 && groups.keySet().contains("[]")) {
-                return ArraySchema.builder().allItemSchema(objectSchema.getPropertySchemas().get("[]")).title(objectSchema.getTitle()).build();
+    /**
+     * A root object that only contains an array is unwrapped to a top level array schema.
+     */
+    private void writeRootSchema(JsonGenerator generator, PathNode root, String title) throws IOException {
+        PathNode topLevelArray = root.children.size() == 1 ? root.children.get("[]") : null;
+        if (topLevelArray == null) {
+            writeObjectSchema(generator, root, title, null);
+            return;
+        }
+        generator.writeStartObject();
+        writeStringIfPresent(generator, "title", title);
+        generator.writeStringField("type", "array");
+        FieldDescriptor endOfPath = topLevelArray.endOfPath();
+        if (endOfPath == null || !endOfPath.isIgnored()) {
+            generator.writeFieldName("items");
+            writePropertySchema(generator, topLevelArray, endOfPath);
+        }
+        generator.writeEndObject();
+    }
+
+    private void writeObjectSchema(JsonGenerator generator, PathNode node, String title, String description) throws IOException {
+        generator.writeStartObject();
+        writeStringIfPresent(generator, "title", title);
+        writeStringIfPresent(generator, "description", description);
+        generator.writeStringField("type", "object");
+
+        List<String> requiredProperties = new ArrayList<>();
+        boolean hasProperties = false;
+        for (Map.Entry<String, PathNode> property : node.children.entrySet()) {
+            if (isArraySegment(property.getKey())) {
+                // the array descriptor of a node that also has properties only contributes the description
+                continue;
             }
+            FieldDescriptor endOfPath = property.getValue().endOfPath();
+            if (endOfPath != null && endOfPath.isIgnored()) {
+                // We don't need to render anything
+                continue;
+            }
+            if (!hasProperties) {
+                generator.writeObjectFieldStart("properties");
+                hasProperties = true;
+            }
+            if (endOfPath != null && profile(endOfPath).isRequired()) {
+                requiredProperties.add(property.getKey());
+            }
+            generator.writeFieldName(property.getKey());
+            writePropertySchema(generator, property.getValue(), endOfPath);
+        }
+        if (hasProperties) {
+            generator.writeEndObject();
+        }
 
+        if (!requiredProperties.isEmpty()) {
+            generator.writeArrayFieldStart("required");
+            for (String requiredProperty : requiredProperties) {
+                generator.writeString(requiredProperty);
+            }
+            generator.writeEndArray();
         }
-        return schema;
+        generator.writeEndObject();
     }
 
-    private String toFormattedString(Schema schema) {
-        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder
-                .json()
-                .indentOutput(true)
-                .build();
-        StringWriter writer = new StringWriter();
-        schema.describeTo(new JSONPrinter(writer));
-        try {
-            return objectMapper.writeValueAsString(objectMapper.readTree(writer.toString()));
-        } catch (IOException e) {
-            throw new UncheckedIOException(e);
+    private void writePropertySchema(JsonGenerator generator, PathNode node, FieldDescriptor endOfPath) throws IOException {
+        if (endOfPath != null) {
+            writeFieldSchema(generator, endOfPath);
+        } else {
+            writeNestedSchema(generator, node);
         }
     }
 
-    private Schema traverse(List<String> traversedSegments, List<JsonFieldPath> jsonFieldPaths, ObjectSchema.Builder builder) {
-
-        Map<String, List<JsonFieldPath>> groupedFields = groupFieldsByFirstRemainingPathSegment(traversedSegments, jsonFieldPaths);
-        groupedFields.forEach((propertyName, fieldList) -> {
-
-            List<String> newTraversedSegments = new ArrayList<>(traversedSegments);
-            newTraversedSegments.add(propertyName);
-            fieldList.stream()
-                    .filter(isDirectMatch(newTraversedSegments))
-                    .findFirst()
-                    .map(directMatch -> {
-                        if (fieldList.size() == 1) {
-                            handleEndOfPath(builder, propertyName, directMatch.getFieldDescriptor());
-                        } else {
-                            List<JsonFieldPath> newFields = new ArrayList<>(fieldList);
-                            newFields.remove(directMatch);
-                            processRemainingSegments(builder, propertyName, newTraversedSegments, newFields, (String) directMatch.getFieldDescriptor().getDescription());
-                        }
-                        return true;
-                    }).orElseGet(() -> {
-                        processRemainingSegments(builder, propertyName, newTraversedSegments, fieldList, null);
-                        return true;
-                    });
-        });
-        return builder.build();
-    }
-
-    private Predicate<JsonFieldPath> isDirectMatch(List<String> traversedSegments) {
-        //we have a direct match when there are no remaining segments or when the only following element is an array
-        return jsonFieldPath -> {
-            List<String> remainingSegments = jsonFieldPath.remainingSegments(traversedSegments);
-            return remainingSegments.isEmpty() || (remainingSegments.size() == 1 && isArraySegment(remainingSegments.get(0)));
-        };
-    }
-
-    private Map<String, List<JsonFieldPath>> groupFieldsByFirstRemainingPathSegment(List<String> traversedSegments, List<JsonFieldPath> jsonFieldPaths) {
-        return jsonFieldPaths.stream().collect(groupingBy(j -> j.remainingSegments(traversedSegments).get(0)));
-    }
-
-    private void processRemainingSegments(ObjectSchema.Builder builder, String propertyName, List<String> traversedSegments, List<JsonFieldPath> fields, String description) {
-        List<String> remainingSegments = fields.get(0).remainingSegments(traversedSegments);
-        if (remainingSegments.size() > 0 && isArraySegment(remainingSegments.get(0))) {
-            traversedSegments.add(remainingSegments.get(0));
-            builder.addPropertySchema(propertyName, ArraySchema.builder()
-                    .allItemSchema(traverse(traversedSegments, fields, ObjectSchema.builder()))
-                    .description(description)
-                    .build());
+    /**
+     * The path continues below this node - so it is an object or an array of objects.
+     * A descriptor for the node itself only contributes the description.
+     */
+    private void writeNestedSchema(JsonGenerator generator, PathNode node) throws IOException {
+        PathNode directMatch = node.directMatch().orElse(null);
+        String description = directMatch != null ? (String) directMatch.fieldPath.getFieldDescriptor().getDescription() : null;
+        Optional<PathNode> arrayItems = node.arrayChildren()
+                .filter(child -> child.pathCount > (child == directMatch ? 1 : 0))
+                .findFirst();
+        if (arrayItems.isPresent()) {
+            generator.writeStartObject();
+            writeStringIfPresent(generator, "description", description);
+            generator.writeStringField("type", "array");
+            generator.writeFieldName("items");
+            writeObjectSchema(generator, arrayItems.get(), null, null);
+            generator.writeEndObject();
         } else {
-            builder.addPropertySchema(propertyName, traverse(traversedSegments, fields, (ObjectSchema.Builder) ObjectSchema.builder()
-                    .description(description)));
+            writeObjectSchema(generator, node, null, description);
         }
     }
 
-    private void handleEndOfPath(ObjectSchema.Builder builder, String propertyName, FieldDescriptor fieldDescriptor) {
+    private void writeFieldSchema(JsonGenerator generator, FieldDescriptor fieldDescriptor) throws IOException {
+        String type = schemaType(fieldDescriptor);
+        generator.writeStartObject();
+        writeStringIfPresent(generator, "description", (String) fieldDescriptor.getDescription());
+        generator.writeStringField("type", type);
+        writeConstraints(generator, fieldDescriptor.getType(), profile(fieldDescriptor));
+        generator.writeEndObject();
+    }
+
+    private void writeConstraints(JsonGenerator generator, Object type, ConstraintProfile profile) throws IOException {
+        if (type.equals(JsonFieldType.STRING)) {
+            writeNumberIfPresent(generator, "minLength", profile.getMinSize());
+            writeNumberIfPresent(generator, "maxLength", profile.getMaxSize());
+            writeStringIfPresent(generator, "pattern", profile.getPattern());
+            writeStringIfPresent(generator, "format", profile.getFormat());
+        } else if (type.equals(JsonFieldType.ARRAY)) {
+            writeNumberIfPresent(generator, "minItems", profile.getMinSize());
+            writeNumberIfPresent(generator, "maxItems", profile.getMaxSize());
+        } else if (type.equals(JsonFieldType.NUMBER)) {
+            writeBoundIfPresent(generator, "minimum", "exclusiveMinimum", profile.getMinimum(), profile.isExclusiveMinimum());
+            writeBoundIfPresent(generator, "maximum", "exclusiveMaximum", profile.getMaximum(), profile.isExclusiveMaximum());
+        }
+    }
 
-        if (fieldDescriptor.isIgnored()) {
-            // We don't need to render anything
+    private String schemaType(FieldDescriptor fieldDescriptor) {
+        if (fieldDescriptor.getType().equals(JsonFieldType.NULL) || fieldDescriptor.getType().equals(JsonFieldType.VARIES)) {
+            return "null";
+        } else if (fieldDescriptor.getType().equals(JsonFieldType.OBJECT)) {
+            return "object";
+        } else if (fieldDescriptor.getType().equals(JsonFieldType.ARRAY)) {
+            return "array";
+        } else if (fieldDescriptor.getType().equals(JsonFieldType.BOOLEAN)) {
+            return "boolean";
+        } else if (fieldDescriptor.getType().equals(JsonFieldType.NUMBER)) {
+            return "number";
+        } else if (fieldDescriptor.getType().equals(JsonFieldType.STRING)) {
+            return "string";
         } else {
-            if (isRequired(fieldDescriptor)) {
-                builder.addRequiredProperty(propertyName);
+            throw new IllegalArgumentException("unknown field type " + fieldDescriptor.getType());
+        }
+    }
+
+    private static void writeStringIfPresent(JsonGenerator generator, String fieldName, String value) throws IOException {
+        if (value != null) {
+            generator.writeStringField(fieldName, value);
+        }
+    }
+
+    private static void writeNumberIfPresent(JsonGenerator generator, String fieldName, Integer value) throws IOException {
+        if (value != null) {
+            generator.writeNumberField(fieldName, value);
+        }
+    }
+
+    /**
+     * json schema draft 4 marks an exclusive bound with a boolean next to it
+     */
+    private static void writeBoundIfPresent(JsonGenerator generator, String fieldName, String exclusiveFieldName,
+                                            BigDecimal value, boolean exclusive) throws IOException {
+        if (value != null) {
+            generator.writeNumberField(fieldName, value);
+            if (exclusive) {
+                generator.writeBooleanField(exclusiveFieldName, true);
             }
-            if (fieldDescriptor.getType().equals(JsonFieldType.NULL) || fieldDescriptor.getType().equals(JsonFieldType.VARIES)) {
-                builder.addPropertySchema(propertyName, NullSchema.builder()
-                        .description((String) fieldDescriptor.getDescription())
-                        .build());
-            } else if (fieldDescriptor.getType().equals(JsonFieldType.OBJECT)) {
-                builder.addPropertySchema(propertyName, ObjectSchema.builder()
-                        .description((String) fieldDescriptor.getDescription())
-                        .build());
-
-            } else if (fieldDescriptor.getType().equals(JsonFieldType.ARRAY)) {
-                builder.addPropertySchema(propertyName, ArraySchema.builder()
-                        .description((String) fieldDescriptor.getDescription())
-                        .build());
-            } else if (fieldDescriptor.getType().equals(JsonFieldType.BOOLEAN)) {
-                builder.addPropertySchema(propertyName, BooleanSchema.builder()
-                        .description((String) fieldDescriptor.getDescription())
-                        .build());
-            } else if (fieldDescriptor.getType().equals(JsonFieldType.NUMBER)) {
-                builder.addPropertySchema(propertyName, NumberSchema.builder()
-                        .description((String) fieldDescriptor.getDescription())
-                        .build());
-            } else if (fieldDescriptor.getType().equals(JsonFieldType.STRING)) {
-                builder.addPropertySchema(propertyName, StringSchema.builder()
-                        .minLength(minLengthString(fieldDescriptor))
-                        .maxLength(maxLengthString(fieldDescriptor))
-                        .description((String) fieldDescriptor.getDescription())
-                        .build());
-            } else {
-                throw new IllegalArgumentException("unknown field type " + fieldDescriptor.getType());
+        }
+    }
+
+    /**
+     * A trie over the segments of all field paths.
+     * Every path is inserted once, so building and walking the trie is linear in the total number of segments.
+     * Children are sorted by name - so properties are always emitted in the same order.
+     */
+    private static class PathNode {
+        private final Map<String, PathNode> children = new TreeMap<>();
+        /**
+         * the path ending at this node - null for intermediate nodes
+         */
+        private JsonFieldPath fieldPath;
+        /**
+         * position of fieldPath in the distinct field paths - the first direct match wins
+         */
+        private int order;
+        /**
+         * number of paths ending at or below this node
+         */
+        private int pathCount;
+
+        static PathNode of(List<JsonFieldPath> jsonFieldPaths) {
+            PathNode root = new PathNode();
+            for (int i = 0; i < jsonFieldPaths.size(); i++) {
+                PathNode node = root;
+                for (String segment : jsonFieldPaths.get(i).getSegments()) {
+                    node = node.children.computeIfAbsent(segment, key -> new PathNode());
+                    node.pathCount++;
+                }
+                if (node.fieldPath == null) {
+                    node.fieldPath = jsonFieldPaths.get(i);
+                    node.order = i;
+                }
             }
+            return root;
+        }
+
+        /**
+         * we have a direct match when a path ends here or when the only following element is an array
+         */
+        Optional<PathNode> directMatch() {
+            return Stream.concat(Stream.of(this), arrayChildren())
+                    .filter(node -> node.fieldPath != null)
+                    .min(comparingInt(node -> node.order));
+        }
+
+        /**
+         * @return the descriptor if this node is the end of a single path - null if the path continues
+         */
+        FieldDescriptor endOfPath() {
+            return pathCount == 1 ? directMatch().map(node -> node.fieldPath.getFieldDescriptor()).orElse(null) : null;
+        }
+
+        Stream<PathNode> arrayChildren() {
+            return children.entrySet().stream()
+                    .filter(child -> isArraySegment(child.getKey()))
+                    .map(Map.Entry::getValue);
         }
     }
 
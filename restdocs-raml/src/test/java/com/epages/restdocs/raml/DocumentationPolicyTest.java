@@ -0,0 +1,113 @@
+package com.epages.restdocs.raml;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.restdocs.operation.Operation;
+
+public class DocumentationPolicyTest {
+
+    private DocumentationPolicy documentationPolicy;
+
+    private List<Boolean> documented = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        DocumentationPolicies.reset();
+    }
+
+    @Test
+    public void should_document_first_n_operations_per_identifier() {
+        documentationPolicy = DocumentationPolicy.firstN(2);
+
+        whenDocumented("list", 200);
+        whenDocumented("list", 200);
+        whenDocumented("list", 200);
+        whenDocumented("get", 200);
+
+        then(documented).containsExactly(true, true, false, true);
+    }
+
+    @Test
+    public void should_document_first_n_operations_of_reservoir() {
+        documentationPolicy = DocumentationPolicy.reservoir(2);
+
+        whenDocumented("list", 200);
+        whenDocumented("list", 200);
+
+        then(documented).containsExactly(true, true);
+    }
+
+    @Test
+    public void should_document_one_operation_per_status() {
+        documentationPolicy = DocumentationPolicy.onePerStatus();
+
+        whenDocumented("list", 200);
+        whenDocumented("list", 400);
+        whenDocumented("list", 200);
+        whenDocumented("get", 200);
+
+        then(documented).containsExactly(true, true, false, true);
+    }
+
+    @Test
+    public void should_name_snippets_after_status() {
+        documentationPolicy = DocumentationPolicy.onePerStatus();
+
+        then(documentationPolicy.snippetName(operation("list", 404))).isEqualTo("list-404");
+    }
+
+    @Test
+    public void should_share_counts_of_equal_policies() {
+        documentationPolicy = DocumentationPolicy.firstN(1);
+        whenDocumented("list", 200);
+
+        documentationPolicy = DocumentationPolicy.firstN(1);
+        whenDocumented("list", 200);
+
+        documentationPolicy = DocumentationPolicy.firstN(2);
+        whenDocumented("list", 200);
+
+        then(documented).containsExactly(true, false, true);
+    }
+
+    @Test
+    public void should_name_snippets_after_sample() {
+        DocumentationPolicy firstOne = DocumentationPolicy.firstN(1);
+        DocumentationPolicy firstTwo = DocumentationPolicy.firstN(2);
+
+        then(firstOne.snippetName(operation("list", 200))).isEqualTo("list");
+        then(firstTwo.snippetName(operation("list", 200))).isEqualTo("list-1");
+        then(firstTwo.snippetName(operation("list", 200))).isEqualTo("list-2");
+        then(firstTwo.snippetName(operation("list", 200))).isNull();
+    }
+
+    @Test
+    public void should_replace_samples_of_reservoir() {
+        documentationPolicy = DocumentationPolicy.reservoir(2);
+        List<String> snippetNames = new ArrayList<>();
+
+        for (int i = 0; i < 100; i++) {
+            snippetNames.add(documentationPolicy.snippetName(operation("list", 200)));
+        }
+
+        then(snippetNames.subList(0, 2)).containsExactly("list-1", "list-2");
+        then(snippetNames).containsOnly("list-1", "list-2", null);
+    }
+
+    private void whenDocumented(String identifier, int status) {
+        documented.add(documentationPolicy.shouldDocument(operation(identifier, status)));
+    }
+
+    private Operation operation(String identifier, int status) {
+        OperationBuilder operationBuilder = new OperationBuilder(identifier, new File("build", "generated-snippets"));
+        operationBuilder.request("http://localhost:8080/some");
+        operationBuilder.response().status(status);
+        return operationBuilder.build();
+    }
+}
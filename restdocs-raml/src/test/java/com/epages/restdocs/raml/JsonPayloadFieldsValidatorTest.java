@@ -0,0 +1,96 @@
+package com.epages.restdocs.raml;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.springframework.restdocs.payload.PayloadDocumentation.fieldWithPath;
+import static org.springframework.restdocs.payload.PayloadDocumentation.subsectionWithPath;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.springframework.restdocs.payload.FieldDescriptor;
+import org.springframework.restdocs.payload.JsonFieldType;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.SneakyThrows;
+
+public class JsonPayloadFieldsValidatorTest {
+
+    private Object payload;
+
+    private List<FieldDescriptor> fieldDescriptors;
+
+    private boolean validated;
+
+    @Test
+    public void should_validate_fields_and_infer_types() {
+        givenPayload("{\"comment\": \"some\", \"items\": [{\"id\": 1}], \"meta\": {\"a\": true}}");
+        givenFieldDescriptors(
+                fieldWithPath("comment").description("some"),
+                fieldWithPath("items[].id").description("some"),
+                fieldWithPath("optional").description("some").type(JsonFieldType.STRING).optional(),
+                subsectionWithPath("meta").description("some"));
+
+        whenValidated();
+
+        then(validated).isTrue();
+        then(fieldDescriptors.get(0).getType()).isEqualTo(JsonFieldType.STRING);
+        then(fieldDescriptors.get(1).getType()).isEqualTo(JsonFieldType.NUMBER);
+        then(fieldDescriptors.get(3).getType()).isEqualTo(JsonFieldType.OBJECT);
+    }
+
+    @Test
+    public void should_not_modify_the_payload() {
+        givenPayload("{\"comment\": \"some\"}");
+        givenFieldDescriptors(fieldWithPath("comment").description("some"));
+
+        whenValidated();
+        whenValidated();
+
+        then(validated).isTrue();
+    }
+
+    @Test
+    public void should_leave_invalid_fields_to_spring_restdocs() {
+        givenPayload("{\"comment\": \"some\", \"undocumented\": 1}");
+
+        givenFieldDescriptors(fieldWithPath("comment").description("some"));
+        whenValidated();
+        then(validated).isFalse();
+
+        givenFieldDescriptors(fieldWithPath("comment").description("some"), fieldWithPath("undocumented").description("some"),
+                fieldWithPath("missing").description("some"));
+        whenValidated();
+        then(validated).isFalse();
+
+        givenFieldDescriptors(fieldWithPath("comment").description("some").type(JsonFieldType.NUMBER),
+                fieldWithPath("undocumented").description("some"));
+        whenValidated();
+        then(validated).isFalse();
+        then(fieldDescriptors.get(1).getType()).isNull();
+    }
+
+    @Test
+    public void should_not_validate_without_json_payload() {
+        givenFieldDescriptors(fieldWithPath("comment").description("some"));
+
+        whenValidated();
+
+        then(validated).isFalse();
+    }
+
+    @SneakyThrows
+    private void givenPayload(String json) {
+        payload = new ObjectMapper().readValue(json, Object.class);
+    }
+
+    private void givenFieldDescriptors(FieldDescriptor... fieldDescriptors) {
+        this.fieldDescriptors = fieldDescriptors.length == 1 ? singletonList(fieldDescriptors[0]) : asList(fieldDescriptors);
+    }
+
+    private void whenValidated() {
+        validated = JsonPayloadFieldsValidator.validateFieldsAndInferTypeInformation(payload, fieldDescriptors);
+    }
+}
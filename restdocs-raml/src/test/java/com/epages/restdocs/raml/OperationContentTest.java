@@ -0,0 +1,56 @@
+package com.epages.restdocs.raml;
+
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+import org.junit.Test;
+import org.springframework.restdocs.operation.Operation;
+
+public class OperationContentTest {
+
+    private Operation operation;
+
+    @Test
+    public void should_share_content_view_for_operation() {
+        givenOperationWithRequestBody();
+
+        OperationContent content = OperationContent.of(operation);
+
+        then(OperationContent.of(operation)).isSameAs(content);
+        then(content.getRequestContentAsString()).isSameAs(content.getRequestContentAsString());
+    }
+
+    @Test
+    public void should_expose_request_and_response_content() {
+        givenOperationWithRequestBody();
+
+        OperationContent content = OperationContent.of(operation);
+
+        then(content.hasRequestContent()).isTrue();
+        then(content.getRequestContentAsString()).isEqualTo("{\"comment\": \"some\"}");
+        then(content.hasResponseContent()).isFalse();
+        then(content.getResponseContentAsString()).isEmpty();
+    }
+
+    @Test
+    public void should_parse_payload_once() {
+        givenOperationWithRequestBody();
+
+        OperationContent content = OperationContent.of(operation);
+
+        then(content.getRequestPayload()).isEqualTo(singletonMap("comment", "some"));
+        then(content.getRequestPayload()).isSameAs(content.getRequestPayload());
+        then(content.getResponsePayload()).isNull();
+    }
+
+    private void givenOperationWithRequestBody() {
+        operation = new OperationBuilder()
+                .request("http://localhost:8080/some/123")
+                .method("POST")
+                .header(CONTENT_TYPE, APPLICATION_JSON_VALUE)
+                .content("{\"comment\": \"some\"}")
+                .build();
+    }
+}
@@ -12,6 +12,8 @@ import static org.springframework.restdocs.payload.PayloadDocumentation.fieldWit
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 
 import org.junit.Before;
 import org.junit.Rule;
@@ -21,6 +23,8 @@ import org.springframework.restdocs.operation.Operation;
 
 import com.epages.restdocs.raml.RamlResourceSnippet.MissingUrlTemplateException;
 import com.epages.restdocs.raml.RamlResourceSnippetParameters.RamlResourceSnippetParametersBuilder;
+import com.epages.restdocs.raml.jsonschema.CacheStats;
+import com.epages.restdocs.raml.jsonschema.JsonSchemaFromFieldDescriptorsGenerator;
 
 import lombok.SneakyThrows;
 
@@ -38,6 +42,7 @@ public class RamlResourceSnippetTest implements RamlResourceSnippetTestTrait {
     @Before
     public void setUp() {
         parametersBuilder = RamlResourceSnippetParameters.builder();
+        DocumentationPolicies.reset();
     }
 
     @Test
@@ -94,6 +99,125 @@ public class RamlResourceSnippetTest implements RamlResourceSnippetTestTrait {
         then(generatedResponseSchemaFile()).doesNotExist();
     }
 
+    @Test
+    @SneakyThrows
+    public void should_store_body_with_original_encoding() {
+        givenOperationWithIsoEncodedRequestBody();
+
+        whenRamlSnippetInvoked();
+
+        then(Files.readAllBytes(generatedRequestJsonFile().toPath())).isEqualTo(operation.getRequest().getContent());
+        then(generatedRequestJsonFile()).usingCharset(StandardCharsets.ISO_8859_1).hasContent("{\"comment\": \"s\u00fc\u00df\"}");
+    }
+
+    @Test
+    @SneakyThrows
+    public void should_store_equal_bodies_and_schemas_once_when_content_addressed() {
+        System.setProperty(ContentAddressedStorage.ENABLED_PROPERTY, "true");
+        try {
+            givenRequestFieldDescriptors();
+            givenResponseFieldDescriptors();
+            givenOperationWithRequestAndResponseBody();
+            whenRamlSnippetInvoked();
+            givenOperationWithRequestAndResponseBody("other");
+            whenRamlSnippetInvoked();
+        } finally {
+            System.clearProperty(ContentAddressedStorage.ENABLED_PROPERTY);
+        }
+
+        File contentDirectory = new File(temporaryFolder.getRoot(), ContentAddressedStorage.DIRECTORY);
+        String requestFileName = ContentAddressedStorage.fileName(operation.getRequest().getContent(), REQUEST_FILE_SUFFIX);
+        then(contentDirectory.list()).hasSize(4).contains(requestFileName);
+        then(new File(contentDirectory, requestFileName)).hasContent(operation.getRequest().getContentAsString());
+        then(generatedRamlFragmentFile()).hasSameContentAs(new File(temporaryFolder.getRoot(), "other/" + RAML_FRAGMENT_FILE));
+        then(new String(Files.readAllBytes(generatedRamlFragmentFile().toPath()), StandardCharsets.UTF_8)).contains(requestFileName);
+        then(generatedRequestJsonFile()).doesNotExist();
+        then(generatedResponseSchemaFile()).doesNotExist();
+    }
+
+    @Test
+    @SneakyThrows
+    public void should_generate_schemas_once_when_content_addressed() {
+        System.setProperty(ContentAddressedStorage.ENABLED_PROPERTY, "true");
+        CacheStats before = JsonSchemaFromFieldDescriptorsGenerator.schemaCacheStats();
+        try {
+            givenRequestFieldDescriptors();
+            givenResponseFieldDescriptors();
+            givenOperationWithRequestAndResponseBody();
+            whenRamlSnippetInvoked();
+        } finally {
+            System.clearProperty(ContentAddressedStorage.ENABLED_PROPERTY);
+        }
+
+        CacheStats after = JsonSchemaFromFieldDescriptorsGenerator.schemaCacheStats();
+        then(after.getHits() + after.getMisses() - before.getHits() - before.getMisses()).isEqualTo(2);
+    }
+
+    @Test
+    @SneakyThrows
+    public void should_skip_operations_outside_of_documentation_policy() {
+        parametersBuilder.documentationPolicy(DocumentationPolicy.firstN(1));
+        givenOperationWithRequestBody();
+        whenRamlSnippetInvoked();
+        String documentedContent = operation.getRequest().getContentAsString();
+
+        givenOperationWithIsoEncodedRequestBody();
+        whenRamlSnippetInvoked();
+
+        then(generatedRequestJsonFile()).hasContent(documentedContent);
+    }
+
+    @Test
+    @SneakyThrows
+    public void should_write_snippets_of_each_status_to_their_own_directory() {
+        parametersBuilder.documentationPolicy(DocumentationPolicy.onePerStatus());
+        givenOperationWithoutBody();
+        whenRamlSnippetInvoked();
+
+        givenOperationWithRequestBody();
+        whenRamlSnippetInvoked();
+
+        then(new File(getRootOutputDirectory(), OPERATION_NAME + "-201/" + RAML_FRAGMENT_FILE)).exists();
+        then(new File(getRootOutputDirectory(), OPERATION_NAME + "-200/" + RAML_FRAGMENT_FILE)).exists();
+        then(new File(getRootOutputDirectory(), OPERATION_NAME + "-200/" + OPERATION_NAME + "-200" + REQUEST_FILE_SUFFIX)).exists();
+        then(generatedRamlFragmentFile()).doesNotExist();
+    }
+
+    @Test
+    @SneakyThrows
+    public void should_write_each_sample_to_its_own_directory() {
+        parametersBuilder.documentationPolicy(DocumentationPolicy.firstN(2));
+        givenOperationWithRequestBody();
+        whenRamlSnippetInvoked();
+        whenRamlSnippetInvoked();
+        whenRamlSnippetInvoked();
+
+        then(new File(getRootOutputDirectory(), OPERATION_NAME + "-1/" + RAML_FRAGMENT_FILE)).exists();
+        then(new File(getRootOutputDirectory(), OPERATION_NAME + "-2/" + RAML_FRAGMENT_FILE)).exists();
+        then(new File(getRootOutputDirectory(), OPERATION_NAME + "-3")).doesNotExist();
+        then(generatedRamlFragmentFile()).doesNotExist();
+    }
+
+    @Test
+    @SneakyThrows
+    public void should_leave_unchanged_files_untouched() {
+        givenOperationWithRequestAndResponseBody();
+        givenRequestFieldDescriptors();
+        givenResponseFieldDescriptors();
+        whenRamlSnippetInvoked();
+        long lastModified = 1_000_000_000L;
+        File[] generatedFiles = {generatedRamlFragmentFile(), generatedRequestJsonFile(), generatedResponseJsonFile(),
+                generatedRequestSchemaFile(), generatedResponseSchemaFile()};
+        for (File file : generatedFiles) {
+            then(file.setLastModified(lastModified)).isTrue();
+        }
+
+        whenRamlSnippetInvoked();
+
+        then(generatedFiles).allMatch(file -> file.lastModified() == lastModified);
+        then(new File(temporaryFolder.getRoot(), OPERATION_NAME).list()).hasSize(generatedFiles.length);
+    }
+
     @Test
     @SneakyThrows
     public void should_fail_on_missing_url_template() {
@@ -158,6 +282,16 @@ public class RamlResourceSnippetTest implements RamlResourceSnippetTestTrait {
                 .build();
     }
 
+    private void givenOperationWithIsoEncodedRequestBody() {
+        operation = new OperationBuilder("test", temporaryFolder.getRoot())
+                .attribute(ATTRIBUTE_NAME_URL_TEMPLATE, "http://localhost:8080/some/{id}")
+                .request("http://localhost:8080/some/123")
+                .method("POST")
+                .header(CONTENT_TYPE, "application/json;charset=ISO-8859-1")
+                .content("{\"comment\": \"s\u00fc\u00df\"}".getBytes(StandardCharsets.ISO_8859_1))
+                .build();
+    }
+
     private void givenRequestFieldDescriptors() {
         parametersBuilder.requestFields(fieldWithPath("comment").description("description"));
     }
@@ -167,7 +301,11 @@ public class RamlResourceSnippetTest implements RamlResourceSnippetTestTrait {
     }
 
     private void givenOperationWithRequestAndResponseBody() {
-        final OperationBuilder operationBuilder = new OperationBuilder("test", temporaryFolder.getRoot())
+        givenOperationWithRequestAndResponseBody(OPERATION_NAME);
+    }
+
+    private void givenOperationWithRequestAndResponseBody(String operationName) {
+        final OperationBuilder operationBuilder = new OperationBuilder(operationName, temporaryFolder.getRoot())
                 .attribute(ATTRIBUTE_NAME_URL_TEMPLATE, "http://localhost:8080/some/{id}");
         final String content = "{\"comment\": \"some\"}";
         operationBuilder
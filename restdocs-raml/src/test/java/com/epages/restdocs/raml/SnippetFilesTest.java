@@ -0,0 +1,75 @@
+package com.epages.restdocs.raml;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SnippetFilesTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path file;
+
+    private boolean written;
+
+    @Test
+    public void should_create_missing_file() throws IOException {
+        file = temporaryFolder.getRoot().toPath().resolve("some/raml-resource.raml");
+
+        whenWritten("some content");
+
+        then(written).isTrue();
+        then(file.toFile()).hasContent("some content");
+        then(file.getParent().toFile().list()).containsExactly("raml-resource.raml");
+    }
+
+    @Test
+    public void should_only_write_changed_content() throws IOException {
+        givenFileWithContent("some content");
+
+        whenWritten("some content");
+        then(written).isFalse();
+        then(file.toFile().lastModified()).isEqualTo(1_000_000_000L);
+
+        whenWritten("same length!");
+        then(written).isTrue();
+        then(file.toFile()).hasContent("same length!");
+
+        whenWritten("other content");
+        then(written).isTrue();
+        then(file.toFile()).hasContent("other content");
+    }
+
+    @Test
+    public void should_create_file_with_default_permissions() throws IOException {
+        assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+        Path reference = Files.write(temporaryFolder.getRoot().toPath().resolve("reference.raml"), "some content".getBytes(UTF_8));
+        file = temporaryFolder.getRoot().toPath().resolve("raml-resource.raml");
+
+        whenWritten("some content");
+
+        then(Files.getPosixFilePermissions(file)).isEqualTo(Files.getPosixFilePermissions(reference));
+    }
+
+    private void givenFileWithContent(String content) throws IOException {
+        File existing = temporaryFolder.newFile("raml-resource.raml");
+        Files.write(existing.toPath(), content.getBytes(UTF_8));
+        then(existing.setLastModified(1_000_000_000L)).isTrue();
+        file = existing.toPath();
+    }
+
+    private void whenWritten(String content) throws IOException {
+        written = SnippetFiles.writeIfChanged(file, content.getBytes(UTF_8));
+    }
+}
@@ -0,0 +1,55 @@
+package com.epages.restdocs.raml;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.restdocs.templates.Template;
+
+import com.epages.restdocs.raml.RamlResourceSnippet.RamlTemplateFormat;
+
+public class TemplateCacheTest {
+
+    private Template template;
+
+    @After
+    public void tearDown() {
+        TemplateCache.invalidate();
+    }
+
+    @Test
+    public void should_compile_template_only_once() {
+        whenTemplateCompiled();
+
+        then(TemplateCache.compileTemplate(new RamlTemplateFormat(), "raml-resource")).isSameAs(template);
+    }
+
+    @Test
+    public void should_compile_template_again_after_invalidation() {
+        whenTemplateCompiled();
+
+        TemplateCache.invalidate();
+
+        then(TemplateCache.compileTemplate(new RamlTemplateFormat(), "raml-resource")).isNotSameAs(template);
+    }
+
+    @Test
+    public void should_render_template() {
+        whenTemplateCompiled();
+
+        Map<String, Object> model = new HashMap<>();
+        model.put("resource", "/some");
+        model.put("method", "get");
+        model.put("description", "some");
+        model.put("status", 200);
+
+        then(template.render(model)).startsWith("/some:");
+    }
+
+    private void whenTemplateCompiled() {
+        template = TemplateCache.compileTemplate(new RamlTemplateFormat(), "raml-resource");
+    }
+}
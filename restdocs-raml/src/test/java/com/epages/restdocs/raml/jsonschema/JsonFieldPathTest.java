@@ -21,4 +21,22 @@ public class JsonFieldPathTest {
         then(jsonFieldPath.remainingSegments(emptyList())).contains("a", "b", "c");
     }
 
+    @Test
+    public void should_extract_segments() {
+        then(JsonFieldPath.compile(fieldWithPath("a.b[]['c.d'][0].e[*]")).getSegments())
+                .containsExactly("a", "b", "[]", "c.d", "[0]", "e", "[*]");
+        then(JsonFieldPath.compile(fieldWithPath("[].a[b].c")).getSegments())
+                .containsExactly("[]", "a[b]", "c");
+    }
+
+    @Test
+    public void should_parse_path_only_once() {
+        JsonFieldPath.clearCache();
+
+        JsonFieldPath.compile(fieldWithPath("a.b"));
+        JsonFieldPath.compile(fieldWithPath("a.b"));
+
+        then(JsonFieldPath.cacheStats()).isEqualTo(new CacheStats(1, 1, 1));
+    }
+
 }
\ No newline at end of file
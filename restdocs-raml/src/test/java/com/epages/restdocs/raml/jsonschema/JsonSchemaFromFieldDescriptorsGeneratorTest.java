@@ -2,6 +2,7 @@ package com.epages.restdocs.raml.jsonschema;
 
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
 import static org.assertj.core.api.BDDAssertions.then;
 import static org.assertj.core.api.BDDAssertions.thenThrownBy;
 import static org.springframework.restdocs.payload.JsonFieldType.ARRAY;
@@ -15,14 +16,23 @@ import java.io.IOException;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
 
 import org.everit.json.schema.ArraySchema;
 import org.everit.json.schema.ObjectSchema;
 import org.everit.json.schema.Schema;
 import org.everit.json.schema.StringSchema;
+import org.everit.json.schema.ValidationException;
 import org.everit.json.schema.loader.SchemaLoader;
+import org.hibernate.validator.constraints.Email;
 import org.hibernate.validator.constraints.Length;
 import org.hibernate.validator.constraints.NotEmpty;
 import org.json.JSONArray;
@@ -146,6 +156,20 @@ public class JsonSchemaFromFieldDescriptorsGeneratorTest {
         thenSchemaValidatesJson("{\"a\": [1]}");
     }
 
+    @Test
+    public void should_not_emit_array_segment_as_property() {
+        fieldDescriptors = Arrays.asList(
+                fieldWithPath("a[]").description("some array").type(ARRAY),
+                fieldWithPath("a.b").description("some").type(STRING));
+
+        whenSchemaGenerated();
+
+        JSONObject a = new JSONObject(schemaString).getJSONObject("properties").getJSONObject("a");
+        then(a.getString("description")).isEqualTo("some array");
+        then(a.getJSONObject("properties").keySet()).containsExactly("b");
+        thenSchemaIsValid();
+    }
+
     @Test
     public void should_fail_on_unknown_field_type() {
         givenFieldDescriptorWithInvalidType();
@@ -169,6 +193,97 @@ public class JsonSchemaFromFieldDescriptorsGeneratorTest {
         thenThrownBy(this::whenSchemaGenerated).isInstanceOf(MultipleNonEqualFieldDescriptors.class);
     }
 
+    @Test
+    public void should_generate_compact_schema() {
+        givenFieldDescriptorsWithConstraints();
+        generator = new JsonSchemaFromFieldDescriptorsGenerator(false);
+
+        whenSchemaGenerated();
+
+        then(schemaString).doesNotContain("\n").doesNotContain(" : ");
+        thenSchemaIsValid();
+    }
+
+    @Test
+    public void should_emit_properties_in_alphabetical_order() {
+        givenFieldDescriptorsInReverseOrder();
+        generator = new JsonSchemaFromFieldDescriptorsGenerator(false);
+
+        whenSchemaGenerated();
+
+        then(schemaString).isEqualTo("{\"type\":\"object\",\"properties\":{" +
+                "\"a\":{\"description\":\"some\",\"type\":\"string\"}," +
+                "\"b\":{\"description\":\"some\",\"type\":\"number\"}," +
+                "\"c\":{\"description\":\"some\",\"type\":\"boolean\"}}}");
+    }
+
+    @Test
+    public void should_map_bean_validation_constraints() {
+        givenFieldDescriptorsWithBeanValidationConstraints();
+
+        whenSchemaGenerated();
+
+        JSONObject properties = new JSONObject(schemaString).getJSONObject("properties");
+        then(properties.getJSONObject("code").toMap()).containsEntry("minLength", 2).containsEntry("maxLength", 10)
+                .containsEntry("pattern", "[A-Z]+");
+        then(properties.getJSONObject("email").getString("format")).isEqualTo("email");
+        then(properties.getJSONObject("tags").toMap()).containsEntry("minItems", 1).containsEntry("maxItems", 3);
+        then(properties.getJSONObject("quantity").toMap()).containsEntry("minimum", 1).containsEntry("maximum", 100)
+                .doesNotContainKeys("exclusiveMinimum", "exclusiveMaximum");
+        then(properties.getJSONObject("price").toMap()).containsEntry("minimum", 0).containsEntry("exclusiveMinimum", true)
+                .containsEntry("maximum", 100);
+        thenSchemaIsValid();
+        thenSchemaValidatesJson("{\"code\": \"AB\", \"email\": \"a@b.de\", \"tags\": [\"a\"], \"quantity\": 1, \"price\": 0.5}");
+        thenThrownBy(() -> thenSchemaValidatesJson("{\"code\": \"ab\"}")).isInstanceOf(ValidationException.class);
+        thenThrownBy(() -> thenSchemaValidatesJson("{\"price\": 0}")).isInstanceOf(ValidationException.class);
+    }
+
+    @Test
+    public void should_resolve_constraints_once_per_field_descriptor() {
+        FieldDescriptor fieldDescriptor = fieldWithPath("id").description("some").type(STRING)
+                .attributes(constraint(NotNull.class, emptyMap()));
+
+        then(ConstraintResolver.profile(fieldDescriptor)).isSameAs(ConstraintResolver.profile(fieldDescriptor));
+    }
+
+    @Test
+    public void should_resolve_constraints_again_when_attributes_change() {
+        FieldDescriptor fieldDescriptor = fieldWithPath("id").description("some").type(STRING);
+        then(ConstraintResolver.profile(fieldDescriptor).isRequired()).isFalse();
+
+        fieldDescriptor.attributes(constraint(NotNull.class, emptyMap()));
+
+        then(ConstraintResolver.profile(fieldDescriptor).isRequired()).isTrue();
+    }
+
+    @Test
+    public void should_reuse_schema_for_equal_field_descriptors() {
+        JsonSchemaFromFieldDescriptorsGenerator.clearSchemaCache();
+        givenFieldDescriptorsWithConstraints();
+        whenSchemaGenerated();
+        String firstSchemaString = schemaString;
+
+        givenFieldDescriptorsWithConstraints();
+        whenSchemaGenerated();
+
+        then(schemaString).isSameAs(firstSchemaString);
+        then(JsonSchemaFromFieldDescriptorsGenerator.schemaCacheStats()).isEqualTo(new CacheStats(1, 1, 1));
+    }
+
+    @Test
+    public void should_not_reuse_schema_for_field_descriptors_with_different_constraints() {
+        JsonSchemaFromFieldDescriptorsGenerator.clearSchemaCache();
+        fieldDescriptors = singletonList(fieldWithPath("id").description("some").type(STRING));
+        whenSchemaGenerated();
+
+        fieldDescriptors = singletonList(fieldWithPath("id").description("some").type(STRING)
+                .attributes(Attributes.key("notImportant").value(singletonList(new Constraint(NotNull.class.getName(), emptyMap())))));
+        whenSchemaGenerated();
+
+        then(((ObjectSchema) schema).getRequiredProperties()).containsExactly("id");
+        then(JsonSchemaFromFieldDescriptorsGenerator.schemaCacheStats()).isEqualTo(new CacheStats(0, 2, 2));
+    }
+
     @SneakyThrows
     private void thenSchemaIsValid() {
 
@@ -190,6 +305,14 @@ public class JsonSchemaFromFieldDescriptorsGeneratorTest {
         fieldDescriptors = singletonList(fieldWithPath("[]['id']").description("some").type(STRING));
     }
 
+    private void givenFieldDescriptorsInReverseOrder() {
+        fieldDescriptors = Arrays.asList(
+                fieldWithPath("c").description("some").type(BOOLEAN),
+                fieldWithPath("b").description("some").type(NUMBER),
+                fieldWithPath("a").description("some").type(STRING)
+        );
+    }
+
     private void givenFieldDescriptorWithInvalidType() {
         fieldDescriptors = singletonList(fieldWithPath("id").description("some").type("invalid-type"));
     }
@@ -233,6 +356,40 @@ public class JsonSchemaFromFieldDescriptorsGeneratorTest {
         );
     }
 
+    private void givenFieldDescriptorsWithBeanValidationConstraints() {
+        HashMap<String, Object> sizeAttributes = new HashMap<>();
+        sizeAttributes.put("min", 1);
+        sizeAttributes.put("max", 3);
+        HashMap<String, Object> lengthAttributes = new HashMap<>();
+        lengthAttributes.put("min", 0);
+        lengthAttributes.put("max", 10);
+        HashMap<String, Object> decimalMinAttributes = new HashMap<>();
+        decimalMinAttributes.put("value", "0");
+        decimalMinAttributes.put("inclusive", false);
+        HashMap<String, Object> decimalMaxAttributes = new HashMap<>();
+        decimalMaxAttributes.put("value", "100");
+        decimalMaxAttributes.put("inclusive", true);
+
+        fieldDescriptors = Arrays.asList(
+                fieldWithPath("code").description("some").type(STRING).attributes(Attributes.key("notImportant").value(Arrays.asList(
+                        new Constraint(Length.class.getName(), lengthAttributes),
+                        new Constraint(Size.class.getName(), singletonMap("min", 2)),
+                        new Constraint(Pattern.class.getName(), singletonMap("regexp", "[A-Z]+"))))),
+                fieldWithPath("email").description("some").type(STRING).attributes(constraint(Email.class, emptyMap())),
+                fieldWithPath("tags").description("some").type(ARRAY).attributes(constraint(Size.class, sizeAttributes)),
+                fieldWithPath("quantity").description("some").type(NUMBER).attributes(Attributes.key("notImportant").value(Arrays.asList(
+                        new Constraint(Min.class.getName(), singletonMap("value", 1L)),
+                        new Constraint(Max.class.getName(), singletonMap("value", 100L))))),
+                fieldWithPath("price").description("some").type(NUMBER).attributes(Attributes.key("notImportant").value(Arrays.asList(
+                        new Constraint(DecimalMin.class.getName(), decimalMinAttributes),
+                        new Constraint(DecimalMax.class.getName(), decimalMaxAttributes))))
+        );
+    }
+
+    private static Attribute constraint(Class<?> annotation, Map<String, Object> configuration) {
+        return Attributes.key("notImportant").value(singletonList(new Constraint(annotation.getName(), configuration)));
+    }
+
     private void thenSchemaValidatesJson(String json) {
         schema.validate(json.startsWith("[") ? new JSONArray(json) : new JSONObject(json));
     }